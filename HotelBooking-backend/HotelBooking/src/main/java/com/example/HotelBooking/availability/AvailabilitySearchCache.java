@@ -0,0 +1,48 @@
+package com.example.HotelBooking.availability;
+
+import com.example.HotelBooking.cache.VersionedCache;
+import com.example.HotelBooking.dtos.RoomDTO;
+import com.example.HotelBooking.enums.RoomType;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of availability search results keyed by (checkIn, checkOut, roomType). Booking writes
+ * drop the entries whose dates they overlap and room changes drop everything; hit/miss counts are
+ * published as the "availability.search" cache metrics.
+ */
+@Component
+public class AvailabilitySearchCache {
+
+    //a search that raced with a booking write does not cache its result
+    private final VersionedCache<SearchKey, List<RoomDTO>> cache;
+
+    private record SearchKey(LocalDate checkInDate, LocalDate checkOutDate, RoomType roomType) {
+    }
+
+    public AvailabilitySearchCache(MeterRegistry meterRegistry,
+                                   @Value("${availability.search-cache.max-size:10000}") long maxSize,
+                                   @Value("${availability.search-cache.ttl:5m}") Duration ttl) {
+        this.cache = new VersionedCache<>(meterRegistry, "availability.search", maxSize, ttl);
+    }
+
+    public List<RoomDTO> get(LocalDate checkInDate, LocalDate checkOutDate, RoomType roomType, Supplier<List<RoomDTO>> search) {
+        return cache.get(new SearchKey(checkInDate, checkOutDate, roomType), key -> List.copyOf(search.get()));
+    }
+
+    //a stay claims [checkIn, checkOut], which changes every search whose [checkIn, checkOut] shares a date with it
+    public void invalidateOverlapping(LocalDate checkInDate, LocalDate checkOutDate) {
+        cache.invalidateIf(key ->
+                !checkInDate.isAfter(key.checkOutDate()) && !checkOutDate.isBefore(key.checkInDate()));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,310 @@
+package com.example.HotelBooking.availability;
+
+import com.example.HotelBooking.dtos.RoomCalendarDTO;
+import com.example.HotelBooking.dtos.RoomDTO;
+import com.example.HotelBooking.entities.Booking;
+import com.example.HotelBooking.entities.Room;
+import com.example.HotelBooking.enums.BookingStatus;
+import com.example.HotelBooking.enums.RoomType;
+import com.example.HotelBooking.mappers.RoomMapper;
+import com.example.HotelBooking.repositories.BookingRepository;
+import com.example.HotelBooking.repositories.RoomRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory room/night occupancy index. Every room owns a bitset with one bit per night over a rolling
+ * window starting yesterday, so an availability search is a few word-masks per room instead of the
+ * NOT IN anti-join over the whole bookings table. Searches outside the window fall back to the database.
+ * Each room also keeps its active stays as a sorted {@link RoomStays} array, the source the bitset is
+ * recomputed from when a stay is released. Per room type
+ * the index keeps a count of occupied rooms for every night, which backs the month calendar.
+ *
+ * The index is advisory and per node: it sees this node's writes right away, but bookings and
+ * cancellations made on other nodes only once it is rebuilt from the database, every
+ * availability.index.refresh-interval. That interval bounds how stale searches and the calendar can be
+ * on a multi-node deployment. Bookings are never decided here; they check and claim room_nights.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RoomAvailabilityIndex {
+
+    public static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.BOOKED, BookingStatus.CHECKED_IN);
+
+    private final BookingRepository bookingRepository;
+    private final RoomRepository roomRepository;
+    private final RoomMapper roomMapper;
+    private final AvailabilitySearchCache availabilitySearchCache;
+
+    @Value("${availability.index.horizon-days:400}")
+    private int horizonDays;
+
+    // null until the first build; swapped as a whole on rebuild so readers never mix two windows
+    private volatile Window window;
+
+    private final Object rebuildLock = new Object();
+
+    // writes made while a rebuild reads the database, replayed onto the rebuilt window; null when no rebuild runs
+    private List<Consumer<Window>> writesDuringRebuild;
+
+    // occupiedByType[type][night] and roomsByType[type] are only written and read under the index lock
+    private record Window(long firstEpochDay, Map<Long, RoomSlot> slots, int[][] occupiedByType, int[] roomsByType) {
+    }
+
+    // slots are replaced, never mutated, so readers always see a consistent room + stays + nights triple
+    private record RoomSlot(RoomDTO room, RoomStays stays, long[] nights) {
+    }
+
+    @Async("maintenanceExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuild();
+    }
+
+    //picks up other nodes' writes and shifts the window so it keeps starting yesterday
+    @Scheduled(fixedDelayString = "${availability.index.refresh-interval:1m}",
+            initialDelayString = "${availability.index.refresh-interval:1m}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long start = System.nanoTime();
+            LocalDate firstDay = LocalDate.now().minusDays(1);
+
+            //the database is read outside the index lock so booking commits on this node do not wait for it
+            synchronized (this) {
+                writesDuringRebuild = new ArrayList<>();
+            }
+            try {
+                List<Room> rooms = roomRepository.findAll();
+                List<Booking> bookings = bookingRepository.findByBookingStatusInAndCheckOutDateGreaterThanEqual(ACTIVE_STATUSES, firstDay);
+
+                Map<Long, RoomStays> staysByRoom = new HashMap<>();
+                for (Booking booking : bookings) {
+                    Long roomId = booking.getRoom().getId();
+                    staysByRoom.put(roomId, staysByRoom.getOrDefault(roomId, RoomStays.EMPTY)
+                            .with(booking.getId(), booking.getCheckInDate(), booking.getCheckOutDate()));
+                }
+
+                long firstEpochDay = firstDay.toEpochDay();
+                Window rebuilt = new Window(firstEpochDay, new ConcurrentHashMap<>(),
+                        new int[RoomType.values().length][horizonDays], new int[RoomType.values().length]);
+                for (Room room : rooms) {
+                    RoomStays stays = staysByRoom.getOrDefault(room.getId(), RoomStays.EMPTY);
+                    replaceSlot(rebuilt, room.getId(), new RoomSlot(roomMapper.toDTO(room), stays, nightsOf(firstEpochDay, stays)));
+                }
+
+                //every write is idempotent, so replaying one the read already saw changes nothing
+                synchronized (this) {
+                    writesDuringRebuild.forEach(write -> write.accept(rebuilt));
+                    window = rebuilt;
+                }
+                log.debug("Availability index rebuilt: {} rooms, {} active bookings in {} ms",
+                        rooms.size(), bookings.size(), (System.nanoTime() - start) / 1_000_000);
+            } finally {
+                synchronized (this) {
+                    writesDuringRebuild = null;
+                }
+            }
+        }
+        //cached searches may hold another node's stale answer as well
+        availabilitySearchCache.invalidateAll();
+    }
+
+    /**
+     * Rooms free for the stay, using the same overlap rule as {@link RoomRepository#findAvailableRooms}.
+     * Empty when the index is not built yet or the dates fall outside the indexed window.
+     */
+    public Optional<List<RoomDTO>> findAvailableRooms(LocalDate checkInDate, LocalDate checkOutDate, RoomType roomType) {
+        Window current = window;
+        if (current == null) {
+            return Optional.empty();
+        }
+
+        // a booking [in, out) blocks a search [checkIn, checkOut] when in <= checkOut and out >= checkIn,
+        // i.e. when one of its nights falls in [checkIn - 1, checkOut]
+        int from = toIndex(current.firstEpochDay(), checkInDate.minusDays(1));
+        int to = toIndex(current.firstEpochDay(), checkOutDate);
+        if (from < 0 || to >= horizonDays) {
+            return Optional.empty();
+        }
+
+        List<RoomDTO> available = new ArrayList<>();
+        for (RoomSlot slot : current.slots().values()) {
+            if (roomType != null && slot.room().getType() != roomType) {
+                continue;
+            }
+            if (!anySet(slot.nights(), from, to)) {
+                available.add(slot.room());
+            }
+        }
+        available.sort(Comparator.comparing(RoomDTO::getId));
+        return Optional.of(available);
+    }
+
+    /**
+     * Free rooms per night for each room type (or just {@code roomType}) over the nights [from, to).
+     * Empty when the index is not built yet or the nights fall outside the indexed window.
+     */
+    public synchronized Optional<List<RoomCalendarDTO>> getCalendar(LocalDate from, LocalDate to, RoomType roomType) {
+        Window current = window;
+        if (current == null) {
+            return Optional.empty();
+        }
+        int first = toIndex(current.firstEpochDay(), from);
+        int end = toIndex(current.firstEpochDay(), to);
+        if (first < 0 || end > horizonDays) {
+            return Optional.empty();
+        }
+
+        List<RoomCalendarDTO> calendar = new ArrayList<>();
+        for (RoomType type : RoomType.values()) {
+            if (roomType != null && type != roomType) {
+                continue;
+            }
+            int total = current.roomsByType()[type.ordinal()];
+            int[] occupied = current.occupiedByType()[type.ordinal()];
+            int[] free = new int[end - first];
+            for (int i = 0; i < free.length; i++) {
+                free[i] = total - occupied[first + i];
+            }
+            calendar.add(RoomCalendarDTO.builder()
+                    .type(type)
+                    .totalRooms(total)
+                    .from(from)
+                    .to(to)
+                    .freeRooms(free)
+                    .build());
+        }
+        return Optional.of(calendar);
+    }
+
+    public synchronized void putRoom(Room room) {
+        RoomDTO dto = roomMapper.toDTO(room);
+        write(current -> {
+            RoomSlot existing = current.slots().get(room.getId());
+            RoomStays stays = existing != null ? existing.stays() : RoomStays.EMPTY;
+            replaceSlot(current, room.getId(), new RoomSlot(dto, stays, nightsOf(current.firstEpochDay(), stays)));
+        });
+    }
+
+    public synchronized void removeRoom(Long roomId) {
+        write(current -> replaceSlot(current, roomId, null));
+    }
+
+    public synchronized void reserve(Booking booking) {
+        Long roomId = booking.getRoom().getId();
+        long bookingId = booking.getId();
+        LocalDate checkInDate = booking.getCheckInDate();
+        LocalDate checkOutDate = booking.getCheckOutDate();
+        write(current -> {
+            RoomSlot slot = current.slots().get(roomId);
+            if (slot == null) {
+                return;
+            }
+            RoomStays stays = slot.stays().with(bookingId, checkInDate, checkOutDate);
+            long[] nights = slot.nights().clone();
+            markStay(current.firstEpochDay(), nights, checkInDate, checkOutDate);
+            replaceSlot(current, roomId, new RoomSlot(slot.room(), stays, nights));
+        });
+    }
+
+    public synchronized void release(Booking booking) {
+        Long roomId = booking.getRoom().getId();
+        long bookingId = booking.getId();
+        write(current -> {
+            RoomSlot slot = current.slots().get(roomId);
+            if (slot == null) {
+                return;
+            }
+            RoomStays stays = slot.stays().without(bookingId);
+            replaceSlot(current, roomId, new RoomSlot(slot.room(), stays, nightsOf(current.firstEpochDay(), stays)));
+        });
+    }
+
+    //applies a write to the live window and keeps it for the rebuild in progress, if any; called under the index lock
+    private void write(Consumer<Window> write) {
+        Window current = window;
+        if (current != null) {
+            write.accept(current);
+        }
+        if (writesDuringRebuild != null) {
+            writesDuringRebuild.add(write);
+        }
+    }
+
+    //swaps in the room's new slot (null removes it) and moves its nights between the per-type counters
+    private static void replaceSlot(Window window, Long roomId, RoomSlot slot) {
+        RoomSlot previous = slot != null ? window.slots().put(roomId, slot) : window.slots().remove(roomId);
+        if (previous != null) {
+            count(window, previous, -1);
+        }
+        if (slot != null) {
+            count(window, slot, 1);
+        }
+    }
+
+    private static void count(Window window, RoomSlot slot, int delta) {
+        int type = slot.room().getType().ordinal();
+        int[] occupied = window.occupiedByType()[type];
+        window.roomsByType()[type] += delta;
+        long[] nights = slot.nights();
+        for (int w = 0; w < nights.length; w++) {
+            for (long bits = nights[w]; bits != 0; bits &= bits - 1) {
+                occupied[(w << 6) + Long.numberOfTrailingZeros(bits)] += delta;
+            }
+        }
+    }
+
+    private long[] nightsOf(long firstEpochDay, RoomStays stays) {
+        long[] nights = new long[(horizonDays + 63) >>> 6];
+        for (int i = 0; i < stays.size(); i++) {
+            markStay(firstEpochDay, nights, stays.checkIn(i), stays.checkOut(i));
+        }
+        return nights;
+    }
+
+    private static int toIndex(long firstEpochDay, LocalDate date) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, date.toEpochDay() - firstEpochDay));
+    }
+
+    //sets the bits of the nights [checkIn, checkOut) that fall inside the window
+    private void markStay(long firstEpochDay, long[] nights, LocalDate checkInDate, LocalDate checkOutDate) {
+        int from = Math.max(0, toIndex(firstEpochDay, checkInDate));
+        int to = Math.min(horizonDays, toIndex(firstEpochDay, checkOutDate)) - 1;
+        for (int i = from; i <= to; i++) {
+            nights[i >>> 6] |= 1L << i;
+        }
+    }
+
+    //true when any bit in the inclusive range [from, to] is set
+    private static boolean anySet(long[] nights, int from, int to) {
+        int firstWord = from >>> 6;
+        int lastWord = to >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> (63 - (to & 63));
+
+        if (firstWord == lastWord) {
+            return (nights[firstWord] & firstMask & lastMask) != 0;
+        }
+        if ((nights[firstWord] & firstMask) != 0 || (nights[lastWord] & lastMask) != 0) {
+            return true;
+        }
+        for (int w = firstWord + 1; w < lastWord; w++) {
+            if (nights[w] != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.HotelBooking.availability;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of lock stripes keyed by room id. Booking commits for the same room queue up on the
+ * same stripe while commits for other rooms (almost always on other stripes) run in parallel.
+ */
+@Component
+public class RoomLocks {
+
+    private final Lock[] stripes;
+    private final int mask;
+
+    public RoomLocks(@Value("${booking.room-lock-stripes:256}") int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new Lock[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public Lock forRoom(Long roomId) {
+        long h = roomId * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (h ^ (h >>> 32)) & mask];
+    }
+}
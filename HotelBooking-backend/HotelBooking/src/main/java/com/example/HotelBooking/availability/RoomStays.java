@@ -0,0 +1,83 @@
+package com.example.HotelBooking.availability;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Immutable, check-in ordered array of the active stays of one room, kept by the availability index so a
+ * released stay's nights can be recomputed without reading the room's bookings again.
+ */
+final class RoomStays {
+
+    static final RoomStays EMPTY = new RoomStays(new long[0], new long[0], new long[0]);
+
+    private final long[] bookingIds;
+    private final long[] checkIns;
+    private final long[] checkOuts;
+
+    private RoomStays(long[] bookingIds, long[] checkIns, long[] checkOuts) {
+        this.bookingIds = bookingIds;
+        this.checkIns = checkIns;
+        this.checkOuts = checkOuts;
+    }
+
+    int size() {
+        return bookingIds.length;
+    }
+
+    LocalDate checkIn(int i) {
+        return LocalDate.ofEpochDay(checkIns[i]);
+    }
+
+    LocalDate checkOut(int i) {
+        return LocalDate.ofEpochDay(checkOuts[i]);
+    }
+
+    RoomStays with(long bookingId, LocalDate checkInDate, LocalDate checkOutDate) {
+        RoomStays base = without(bookingId);
+        long checkIn = checkInDate.toEpochDay();
+        int at = base.lastCheckInOnOrBefore(checkIn) + 1;
+
+        long[] ids = insert(base.bookingIds, at, bookingId);
+        long[] ins = insert(base.checkIns, at, checkIn);
+        long[] outs = insert(base.checkOuts, at, checkOutDate.toEpochDay());
+        return new RoomStays(ids, ins, outs);
+    }
+
+    RoomStays without(long bookingId) {
+        for (int i = 0; i < bookingIds.length; i++) {
+            if (bookingIds[i] == bookingId) {
+                return new RoomStays(remove(bookingIds, i), remove(checkIns, i), remove(checkOuts, i));
+            }
+        }
+        return this;
+    }
+
+    private int lastCheckInOnOrBefore(long day) {
+        int low = 0;
+        int high = checkIns.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (checkIns[mid] <= day) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    private static long[] insert(long[] values, int at, long value) {
+        long[] result = new long[values.length + 1];
+        System.arraycopy(values, 0, result, 0, at);
+        result[at] = value;
+        System.arraycopy(values, at, result, at + 1, values.length - at);
+        return result;
+    }
+
+    private static long[] remove(long[] values, int at) {
+        long[] result = Arrays.copyOf(values, values.length - 1);
+        System.arraycopy(values, at + 1, result, at, values.length - at - 1);
+        return result;
+    }
+}
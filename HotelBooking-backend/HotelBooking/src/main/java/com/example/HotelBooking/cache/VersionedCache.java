@@ -0,0 +1,67 @@
+package com.example.HotelBooking.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Bounded read-through Caffeine cache whose invalidations win over loads running at the same time.
+ * Every invalidation bumps one version counter; a load that saw the counter move while it ran drops
+ * its own entry again, so a value read before a write cannot stay cached after it. One counter per
+ * cache is coarser than one per key, but writes are rare next to reads in all of its users.
+ * Hit/miss counts are published as the cache metrics under the given name.
+ */
+public class VersionedCache<K, V> {
+
+    private final Cache<K, V> cache;
+
+    private final AtomicLong writes = new AtomicLong();
+
+    public VersionedCache(MeterRegistry meterRegistry, String name, long maxSize, Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long version = writes.get();
+        V loaded = loader.apply(key);
+        cache.put(key, loaded);
+        if (writes.get() != version) {
+            cache.invalidate(key);
+        }
+        return loaded;
+    }
+
+    //a null key still bumps the version, so loads in flight are not cached
+    public void invalidate(K key) {
+        writes.incrementAndGet();
+        if (key != null) {
+            cache.invalidate(key);
+        }
+    }
+
+    public void invalidateIf(Predicate<? super K> stale) {
+        writes.incrementAndGet();
+        cache.asMap().keySet().removeIf(stale);
+    }
+
+    public void invalidateAll() {
+        writes.incrementAndGet();
+        cache.invalidateAll();
+    }
+}
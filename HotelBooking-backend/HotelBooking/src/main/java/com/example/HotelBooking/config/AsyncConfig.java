@@ -0,0 +1,129 @@
+package com.example.HotelBooking.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.*;
+
+/**
+ * One bounded pool per kind of background work, so a backlog in one cannot starve the others:
+ * <ul>
+ *     <li>notifications: kicks the email outbox right after a commit. When full, the kick is dropped;
+ *     the email is already in the outbox and the next poll sends it.</li>
+ *     <li>maintenance: startup backfills, index builds and plain {@code @Async}. When full, the caller runs the
+ *     task itself.</li>
+ *     <li>mvc: Spring MVC async request processing, i.e. the streamed admin exports. When full, the request
+ *     thread streams the response itself, as MVC does without async.</li>
+ * </ul>
+ * executors.mode=virtual runs the pools on virtual threads where the JVM has them (Java 21+) and falls back
+ * to platform threads otherwise; the pool bounds apply either way. Every pool publishes the Micrometer
+ * executor metrics tagged with its name: executor.queued, executor.active, executor.pool.size, executor.idle
+ * (time spent queued), executor (run time) and executor.rejected.
+ */
+@Configuration
+@Slf4j
+@RequiredArgsConstructor
+public class AsyncConfig implements AsyncConfigurer, WebMvcConfigurer {
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+
+    @Bean
+    public ThreadPoolTaskExecutor notificationsExecutor() {
+        return boundedExecutor("notifications", 1, 2, 10, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor maintenanceExecutor() {
+        return boundedExecutor("maintenance", 1, 4, 20, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor mvcAsyncExecutor() {
+        return boundedExecutor("mvc", 2, 4, 10, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    //@Async without a qualifier
+    @Override
+    public Executor getAsyncExecutor() {
+        return maintenanceExecutor();
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (ex, method, params) -> log.error("Async {} failed: {}", method.getName(), ex.getMessage(), ex);
+    }
+
+    //streamed exports would otherwise run on an unbounded SimpleAsyncTaskExecutor;
+    //they get their own pool so a long export cannot hold up the maintenance work
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(mvcAsyncExecutor());
+    }
+
+    private ThreadPoolTaskExecutor boundedExecutor(String name, int coreSize, int maxSize, int queueCapacity,
+                                                   RejectedExecutionHandler onRejected) {
+        String prefix = "executors." + name + ".";
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor() {
+            @Override
+            protected ExecutorService initializeExecutor(ThreadFactory threadFactory, RejectedExecutionHandler handler) {
+                ExecutorService service = super.initializeExecutor(threadFactory, handler);
+                new ExecutorServiceMetrics(service, name, Tags.empty()).bindTo(meterRegistry);
+                return service;
+            }
+        };
+        executor.setThreadNamePrefix(name + "-");
+        executor.setCorePoolSize(environment.getProperty(prefix + "core-size", Integer.class, coreSize));
+        executor.setMaxPoolSize(environment.getProperty(prefix + "max-size", Integer.class, maxSize));
+        executor.setQueueCapacity(environment.getProperty(prefix + "queue-capacity", Integer.class, queueCapacity));
+        executor.setRejectedExecutionHandler(counted(name, onRejected));
+        executor.setTaskDecorator(timed(name));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        if ("virtual".equalsIgnoreCase(environment.getProperty("executors.mode", "platform"))) {
+            try {
+                executor.setThreadFactory(new VirtualThreadTaskExecutor(name + "-").getVirtualThreadFactory());
+            } catch (UnsupportedOperationException e) {
+                log.warn("Virtual threads need Java 21+, {} executor runs on platform threads", name);
+            }
+        }
+        return executor;
+    }
+
+    private RejectedExecutionHandler counted(String name, RejectedExecutionHandler onRejected) {
+        Counter rejected = Counter.builder("executor.rejected").tag("name", name)
+                .description("Tasks that did not fit in the pool and its queue")
+                .register(meterRegistry);
+        return (task, pool) -> {
+            rejected.increment();
+            onRejected.rejectedExecution(task, pool);
+        };
+    }
+
+    private TaskDecorator timed(String name) {
+        Timer idle = Timer.builder("executor.idle").tag("name", name).register(meterRegistry);
+        Timer run = Timer.builder("executor").tag("name", name).register(meterRegistry);
+        return task -> {
+            long submitted = System.nanoTime();
+            return () -> {
+                idle.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                run.record(task);
+            };
+        };
+    }
+}
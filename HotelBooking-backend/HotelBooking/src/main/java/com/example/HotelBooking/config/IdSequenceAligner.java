@@ -0,0 +1,59 @@
+package com.example.HotelBooking.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Entity ids come from pooled-lo sequences (table-backed on MySQL) instead of AUTO_INCREMENT, so Hibernate
+ * can batch inserts. The V6 migration starts every sequence past its table's highest id, and at startup,
+ * before the web server takes traffic, every sequence is checked again in case rows were inserted with
+ * explicit ids since. Already aligned sequences are left alone.
+ * <p>
+ * This runs once per startup and does not make a rolling upgrade safe: a node on the previous release keeps
+ * inserting with AUTO_INCREMENT and can take ids a node on this release has already reserved from a
+ * sequence. Every node has to be stopped before the first one starts on this release. An alignment that
+ * fails stops the startup, since a node handing out ids from a sequence behind its table would fail its
+ * inserts on duplicate keys.
+ */
+@Component
+@Slf4j
+public class IdSequenceAligner {
+
+    //sequence table -> entity table it numbers
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "bookings_seq", "bookings",
+            "notifications_seq", "notifications",
+            "payments_seq", "payments",
+            "rooms_seq", "rooms",
+            "users_seq", "users");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    //the EntityManagerFactory dependency makes this run after the migrations
+    public IdSequenceAligner(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    void align() {
+        SEQUENCES.forEach((sequence, table) -> {
+            try {
+                int moved = jdbcTemplate.update("UPDATE " + sequence
+                        + " SET next_val = (SELECT COALESCE(MAX(id), 0) + 1 FROM " + table + ")"
+                        + " WHERE next_val <= (SELECT COALESCE(MAX(id), 0) FROM " + table + ")");
+                if (moved > 0) {
+                    log.info("Moved id sequence {} past the existing {} rows", sequence, table);
+                }
+            } catch (DataAccessException e) {
+                log.error("Could not align id sequence {} with table {}", sequence, table);
+                throw e;
+            }
+        });
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.HotelBooking.config;
+
+import com.example.HotelBooking.json.RoomJsonFragments;
+import com.fasterxml.jackson.databind.Module;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JsonConfig {
+
+    //Spring Boot registers every Module bean on the ObjectMapper used by MVC and the caches
+    @Bean
+    public Module roomJsonFragmentsModule(RoomJsonFragments roomJsonFragments) {
+        return roomJsonFragments.module();
+    }
+}
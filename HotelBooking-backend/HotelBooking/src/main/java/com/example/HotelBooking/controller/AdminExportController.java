@@ -0,0 +1,48 @@
+package com.example.HotelBooking.controller;
+
+import com.example.HotelBooking.enums.ExportFormat;
+import com.example.HotelBooking.services.ExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/admin/export")
+@RequiredArgsConstructor
+@PreAuthorize("hasAuthority('ADMIN')")
+public class AdminExportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+    private final ExportService exportService;
+
+    @GetMapping("/bookings")
+    public ResponseEntity<StreamingResponseBody> exportBookings(@RequestParam(required = false) LocalDate from,
+                                                                @RequestParam(required = false) LocalDate to,
+                                                                @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        return attachment("bookings", format, exportService.exportBookings(from, to, format));
+    }
+
+    @GetMapping("/payments")
+    public ResponseEntity<StreamingResponseBody> exportPayments(@RequestParam(required = false) LocalDate from,
+                                                                @RequestParam(required = false) LocalDate to,
+                                                                @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        return attachment("payments", format, exportService.exportPayments(from, to, format));
+    }
+
+    private ResponseEntity<StreamingResponseBody> attachment(String name, ExportFormat format, StreamingResponseBody body) {
+        String fileName = name + "-" + LocalDate.now() + (format == ExportFormat.CSV ? ".csv" : ".ndjson");
+        return ResponseEntity.ok()
+                .contentType(format == ExportFormat.CSV ? CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+}
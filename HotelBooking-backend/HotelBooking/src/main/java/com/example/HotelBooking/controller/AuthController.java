@@ -3,7 +3,11 @@ package com.example.HotelBooking.controller;
 import com.example.HotelBooking.dtos.LoginRequest;
 import com.example.HotelBooking.dtos.RegistrationRequest;
 import com.example.HotelBooking.dtos.Response;
+import com.example.HotelBooking.exceptions.InvalidCredentialException;
+import com.example.HotelBooking.exceptions.NotFoundException;
+import com.example.HotelBooking.security.LoginThrottle;
 import com.example.HotelBooking.services.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -18,6 +22,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class AuthController {
 
     private final UserService userService;
+    private final LoginThrottle loginThrottle;
 
     @PostMapping("/register")
     public ResponseEntity<Response> registerUser(@RequestBody @Valid RegistrationRequest request){
@@ -25,8 +30,18 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<Response> loginUser(@RequestBody @Valid LoginRequest request){
-        return ResponseEntity.ok(userService.loginUser(request));
+    public ResponseEntity<Response> loginUser(@RequestBody @Valid LoginRequest request, HttpServletRequest servletRequest){
+        String ip = servletRequest.getRemoteAddr();
+        //rejected here, before the user lookup and the password hash
+        loginThrottle.check(request.getEmail(), ip);
+        try {
+            Response response = userService.loginUser(request);
+            loginThrottle.recordSuccess(request.getEmail());
+            return ResponseEntity.ok(response);
+        } catch (NotFoundException | InvalidCredentialException e) {
+            loginThrottle.recordFailure(request.getEmail(), ip);
+            throw e;
+        }
     }
 
 
@@ -16,8 +16,13 @@ public class BookingController {
 
     @GetMapping("/all")
     @PreAuthorize("hasAuthority('ADMIN')")
-    public ResponseEntity<Response> getAllBookings() {
-        return ResponseEntity.ok(bookingService.getAllBookings());
+    public ResponseEntity<Response> getAllBookings(@RequestParam(required = false) Integer limit,
+                                                   @RequestParam(required = false) Long after) {
+        //without paging parameters the whole list is returned, as older clients expect
+        if (limit == null && after == null) {
+            return ResponseEntity.ok(bookingService.getAllBookings());
+        }
+        return ResponseEntity.ok(bookingService.getBookingsPage(limit, after));
     }
 
     @PostMapping
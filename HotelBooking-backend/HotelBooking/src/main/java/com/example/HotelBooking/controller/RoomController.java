@@ -3,8 +3,14 @@ package com.example.HotelBooking.controller;
 import com.example.HotelBooking.dtos.Response;
 import com.example.HotelBooking.dtos.RoomDTO;
 import com.example.HotelBooking.enums.RoomType;
+import com.example.HotelBooking.services.RoomCatalogCache;
+import com.example.HotelBooking.services.RoomCatalogCache.CachedJson;
 import com.example.HotelBooking.services.RoomService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -20,6 +26,7 @@ import java.util.List;
 public class RoomController {
 
     private final RoomService roomService;
+    private final RoomCatalogCache roomCatalogCache;
 
     @PostMapping("/add")
     @PreAuthorize("hasAuthority('ADMIN')")
@@ -63,13 +70,20 @@ public class RoomController {
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Response> getAllRooms() {
-        return ResponseEntity.ok(roomService.getAllRooms());
+    public ResponseEntity<?> getAllRooms(@RequestParam(required = false) Integer limit,
+                                         @RequestParam(required = false) Long after,
+                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        //pages are served straight from the database; only the full catalog is kept pre-serialized
+        if (limit != null || after != null) {
+            return ResponseEntity.ok(roomService.getRoomsPage(limit, after));
+        }
+        return cachedJson(roomCatalogCache.getAllRooms(roomService::getAllRooms), ifNoneMatch);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Response> getRoomById(@PathVariable Long id) {
-        return ResponseEntity.ok(roomService.getRoomById(id));
+    public ResponseEntity<byte[]> getRoomById(@PathVariable Long id,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return cachedJson(roomCatalogCache.getRoom(id, () -> roomService.getRoomById(id)), ifNoneMatch);
     }
 
     @DeleteMapping("/delete/{id}")
@@ -84,6 +98,12 @@ public class RoomController {
         return ResponseEntity.ok(roomService.getAvailableRooms(checkInDate, checkOutDate, roomType));
     }
 
+    @GetMapping("/calendar")
+    public ResponseEntity<Response> getAvailabilityCalendar(@RequestParam LocalDate from, @RequestParam LocalDate to, @RequestParam(required = false) RoomType type) {
+
+        return ResponseEntity.ok(roomService.getAvailabilityCalendar(from, to, type));
+    }
+
     @GetMapping("/types")
     public ResponseEntity<List<RoomType>> getAllRoomTypes(){
         return ResponseEntity.ok(roomService.getAllRoomTypes());
@@ -94,7 +114,26 @@ public class RoomController {
         return ResponseEntity.ok(roomService.searchRooms(input));
     }
 
+    @GetMapping("/filter")
+    public ResponseEntity<Response> filterRooms(@RequestParam(required = false) Integer minCapacity,
+                                                @RequestParam(required = false) BigDecimal minPrice,
+                                                @RequestParam(required = false) BigDecimal maxPrice,
+                                                @RequestParam(required = false) List<RoomType> types,
+                                                @RequestParam(defaultValue = "ASC") Sort.Direction sort,
+                                                @RequestParam(defaultValue = "0") int page,
+                                                @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(roomService.filterRooms(minCapacity, minPrice, maxPrice, types, sort, page, size));
+    }
 
-
+    //the catalog is served pre-serialized; a matching If-None-Match gets a 304 without touching the database or Jackson
+    private ResponseEntity<byte[]> cachedJson(CachedJson json, String ifNoneMatch) {
+        if (json.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(json.eTag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(json.eTag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(roomCatalogCache.body(json));
+    }
 
 }
@@ -17,8 +17,13 @@ public class UserController {
 
     @GetMapping("/all")
     @PreAuthorize("hasAuthority('ADMIN')")
-    public ResponseEntity<Response> getAllUsers(){
-        return ResponseEntity.ok(userService.getAllUsers());
+    public ResponseEntity<Response> getAllUsers(@RequestParam(required = false) Integer limit,
+                                                @RequestParam(required = false) Long after){
+        //without paging parameters the whole list is returned, as older clients expect
+        if (limit == null && after == null) {
+            return ResponseEntity.ok(userService.getAllUsers());
+        }
+        return ResponseEntity.ok(userService.getUsersPage(limit, after));
     }
 
     @PutMapping("/update")
@@ -2,6 +2,7 @@ package com.example.HotelBooking.dtos;
 
 import com.example.HotelBooking.enums.BookingStatus;
 import com.example.HotelBooking.enums.PaymentStatus;
+import com.example.HotelBooking.enums.RoomType;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
@@ -39,6 +40,37 @@ public class BookingDTO {
 
     private BookingStatus bookingStatus;
 
+    // JPQL constructor expression for list rows that carry neither the user nor the room
+    public BookingDTO(Long id, Long roomId, PaymentStatus paymentStatus, LocalDate checkInDate, LocalDate checkOutDate,
+                      BigDecimal totalPrice, String bookingreference, LocalDateTime createdAt, BookingStatus bookingStatus) {
+        this.id = id;
+        this.roomId = roomId;
+        this.paymentStatus = paymentStatus;
+        this.checkInDate = checkInDate;
+        this.checkOutDate = checkOutDate;
+        this.totalPrice = totalPrice;
+        this.bookingreference = bookingreference;
+        this.createdAt = createdAt;
+        this.bookingStatus = bookingStatus;
+    }
+
+    // JPQL constructor expression for the booking history, which carries the whole room like the mapped entity did
+    public BookingDTO(Long id, Long roomId, Integer roomNumber, RoomType roomType, BigDecimal roomPricePerNight,
+                      Integer roomCapacity, String roomDescription, String roomImageUrl,
+                      PaymentStatus paymentStatus, LocalDate checkInDate, LocalDate checkOutDate,
+                      BigDecimal totalPrice, String bookingreference, LocalDateTime createdAt, BookingStatus bookingStatus) {
+        this(id, roomId, paymentStatus, checkInDate, checkOutDate, totalPrice, bookingreference, createdAt, bookingStatus);
+        this.room = RoomDTO.builder()
+                .id(roomId)
+                .roomNumber(roomNumber)
+                .type(roomType)
+                .pricepernight(roomPricePerNight)
+                .capacity(roomCapacity)
+                .description(roomDescription)
+                .imageUrl(roomImageUrl)
+                .build();
+    }
+
 
 
 }
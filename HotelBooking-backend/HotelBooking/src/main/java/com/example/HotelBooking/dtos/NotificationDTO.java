@@ -29,6 +29,8 @@ public class NotificationDTO {
 
     private String body;
 
+    private String htmlBody;
+
     private String bookingReference;
 
     private NotificationType type;
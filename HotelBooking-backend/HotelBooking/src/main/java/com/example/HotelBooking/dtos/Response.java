@@ -1,5 +1,6 @@
 package com.example.HotelBooking.dtos;
 
+import com.example.HotelBooking.enums.RoomType;
 import com.example.HotelBooking.enums.UserRole;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
@@ -9,6 +10,7 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Data
 @AllArgsConstructor
@@ -38,6 +40,13 @@ public class Response {
     //Room data output
     private RoomDTO room;
     private List<RoomDTO> rooms;
+    private List<RoomCalendarDTO> calendar;
+    private Map<RoomType, Integer> facets;
+
+    //paging output
+    private Long totalElements;
+    private Integer totalPages;
+    private Long nextCursor;
 
     //Payment data output
     private PaymentDTO payment;
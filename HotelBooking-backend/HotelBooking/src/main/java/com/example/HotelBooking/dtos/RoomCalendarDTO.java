@@ -0,0 +1,31 @@
+package com.example.HotelBooking.dtos;
+
+import com.example.HotelBooking.enums.RoomType;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class RoomCalendarDTO {
+
+    private RoomType type;
+
+    private Integer totalRooms;
+
+    private LocalDate from;
+
+    private LocalDate to;
+
+    // free rooms of this type for each night from `from` up to, not including, `to`
+    private int[] freeRooms;
+}
@@ -6,18 +6,18 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+//one row per named sequence; nextValue is the first number not yet leased to any instance
 @Entity
 @Data
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
-public class BookingReference {
+@Table(name = "booking_reference_sequence")
+public class BookingReferenceSequence {
 
     @Id
-    @GeneratedValue(strategy= GenerationType.IDENTITY)
-    private Long id;
-
-    @Column(unique = true,nullable = false)
-    private String referenceNo;
+    private String name;
 
+    @Column(nullable = false)
+    private Long nextValue;
 }
@@ -1,5 +1,6 @@
 package com.example.HotelBooking.entities;
 
+import com.example.HotelBooking.enums.NotificationStatus;
 import com.example.HotelBooking.enums.NotificationType;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
@@ -19,7 +20,8 @@ import java.time.LocalDateTime;
 public class Notification {
 
     @Id
-    @GeneratedValue(strategy= GenerationType.IDENTITY)
+    @GeneratedValue(strategy= GenerationType.SEQUENCE, generator = "notifications_seq")
+    @SequenceGenerator(name = "notifications_seq", sequenceName = "notifications_seq", allocationSize = 50)
     private Long id;
 
     private String subject;
@@ -27,13 +29,31 @@ public class Notification {
     @NotBlank(message = "recipient is required")
     private String recipient;
 
+    //rendered templates carry unbounded values such as payment failure reasons
+    @Column(columnDefinition = "TEXT")
     private String body;
 
+    //optional HTML alternative of the body
+    @Column(columnDefinition = "TEXT")
+    private String htmlBody;
+
     private String bookingReference;
 
     @Enumerated(EnumType.STRING)
     private NotificationType type;
 
+    //outbox state, written with the booking or payment and advanced by EmailOutboxDispatcher
+    @Enumerated(EnumType.STRING)
+    private NotificationStatus status;
+
+    private int attempts;
+
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime sentAt;
+
+    private String lastError;
+
     private final LocalDateTime createdAt = LocalDateTime.now();
 
 
@@ -20,7 +20,8 @@ import java.time.LocalDateTime;
 public class PaymentEntity {
 
     @Id
-    @GeneratedValue(strategy= GenerationType.IDENTITY)
+    @GeneratedValue(strategy= GenerationType.SEQUENCE, generator = "payments_seq")
+    @SequenceGenerator(name = "payments_seq", sequenceName = "payments_seq", allocationSize = 50)
     private Long id;
 
     private String transactionId;
@@ -36,6 +37,7 @@ public class PaymentEntity {
     private PaymentStatus paymentStatus;
 
     private String bookingReference;
+    @Column(columnDefinition = "TEXT")
     private String failureReason;
 
     @ManyToOne
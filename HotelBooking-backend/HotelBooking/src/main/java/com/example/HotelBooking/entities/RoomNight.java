@@ -0,0 +1,32 @@
+package com.example.HotelBooking.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One reserved date of a room. A stay claims every date from check-in to check-out, both included, so the
+ * (room_id, night_date) primary key rejects overlapping and back-to-back stays alike, whichever node inserts them.
+ */
+@Entity
+@Data
+@Table(name = "room_nights")
+@IdClass(RoomNightId.class)
+@AllArgsConstructor
+@NoArgsConstructor
+public class RoomNight {
+
+    @Id
+    @Column(name = "room_id")
+    private Long roomId;
+
+    @Id
+    @Column(name = "night_date")
+    private LocalDate nightDate;
+
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+}
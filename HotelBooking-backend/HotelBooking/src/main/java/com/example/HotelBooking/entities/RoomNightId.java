@@ -0,0 +1,18 @@
+package com.example.HotelBooking.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RoomNightId implements Serializable {
+
+    private Long roomId;
+
+    private LocalDate nightDate;
+}
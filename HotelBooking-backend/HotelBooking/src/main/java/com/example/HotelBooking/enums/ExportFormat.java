@@ -0,0 +1,6 @@
+package com.example.HotelBooking.enums;
+
+public enum ExportFormat {
+    NDJSON,
+    CSV
+}
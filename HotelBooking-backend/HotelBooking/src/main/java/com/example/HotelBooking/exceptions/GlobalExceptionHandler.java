@@ -1,6 +1,7 @@
 package com.example.HotelBooking.exceptions;
 
 import com.example.HotelBooking.dtos.Response;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -53,5 +54,26 @@ public class GlobalExceptionHandler{
                 .build();
         return new ResponseEntity<>(response,HttpStatus.BAD_REQUEST);
     }
-}
 
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<Response> handleServiceUnavailableException(ServiceUnavailableException ex){
+        Response response =Response.builder()
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .message(ex.getMessage())
+                .build();
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<Response> handleTooManyRequestsException(TooManyRequestsException ex){
+        Response response =Response.builder()
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .message(ex.getMessage())
+                .build();
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response);
+    }
+}
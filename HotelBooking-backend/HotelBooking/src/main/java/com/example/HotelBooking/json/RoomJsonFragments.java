@@ -0,0 +1,145 @@
+package com.example.HotelBooking.json;
+
+import com.example.HotelBooking.dtos.RoomDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.*;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+/**
+ * Serialized JSON of room DTOs, keyed by content. Rooms change rarely and show up in nearly every hot
+ * response (room list, availability, search, booking lookup), so after the first time a room is written
+ * its JSON is copied in raw instead of walking its properties again. A fragment is exactly what the bean
+ * serializer produced, so a given Response serializes to the same bytes with or without it. The module may
+ * be registered on more than one ObjectMapper (the MVC converter, the NDJSON export) and those can be
+ * configured differently, so fragments are also keyed by the SerializationConfig and generator features
+ * they were written with and are only reused by the same mapper or writer. That says nothing
+ * about Response.timestamp, which is set when the Response is built; RoomCatalogCache writes it per request.
+ * Hit/miss counts are published as the "room.json" cache metrics.
+ */
+@Component
+public class RoomJsonFragments {
+
+    private final Cache<FragmentKey, SerializedString> fragments;
+
+    public RoomJsonFragments(MeterRegistry meterRegistry, @Value("${json.room-fragments.max-size:10000}") long maxSize) {
+        this.fragments = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, fragments, "room.json");
+    }
+
+    //registered on the application ObjectMapper by JsonConfig
+    public Module module() {
+        SimpleModule module = new SimpleModule("RoomJsonFragments");
+        module.setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription description, JsonSerializer<?> serializer) {
+                if (description.getBeanClass() == RoomDTO.class) {
+                    return new FragmentSerializer((JsonSerializer<Object>) serializer);
+                }
+                return serializer;
+            }
+        });
+        return module;
+    }
+
+    private SerializedString fragment(RoomDTO room, JsonGenerator gen, SerializerProvider provider, JsonSerializer<Object> delegate) throws IOException {
+        SerializationConfig config = provider.getConfig();
+        int generatorFeatures = gen.getFeatureMask();
+        SerializedString cached = fragments.getIfPresent(new FragmentKey(config, generatorFeatures, room));
+        if (cached != null) {
+            return cached;
+        }
+        StringWriter json = new StringWriter(256);
+        try (JsonGenerator fragmentGen = ((ObjectMapper) gen.getCodec()).getFactory().createGenerator(json)) {
+            fragmentGen.setFeatureMask(generatorFeatures);
+            delegate.serialize(room, fragmentGen, provider);
+        }
+        //SerializedString keeps the encoded UTF-8 bytes, so a hit is a plain array copy into the output
+        SerializedString fragment = new SerializedString(json.toString());
+        //keyed by a private copy, so a caller mutating its DTO later cannot corrupt the entry
+        fragments.put(new FragmentKey(config, generatorFeatures, copyOf(room)), fragment);
+        return fragment;
+    }
+
+    //SerializationConfig has identity equality, and every mapper and reconfigured writer has its own
+    private record FragmentKey(SerializationConfig config, int generatorFeatures, RoomDTO room) {
+    }
+
+    private static RoomDTO copyOf(RoomDTO room) {
+        return RoomDTO.builder()
+                .id(room.getId())
+                .roomNumber(room.getRoomNumber())
+                .type(room.getType())
+                .pricepernight(room.getPricepernight())
+                .capacity(room.getCapacity())
+                .description(room.getDescription())
+                .imageUrl(room.getImageUrl())
+                .build();
+    }
+
+    private final class FragmentSerializer extends JsonSerializer<Object> implements ResolvableSerializer, ContextualSerializer {
+
+        private final JsonSerializer<Object> delegate;
+
+        FragmentSerializer(JsonSerializer<Object> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void serialize(Object value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            //only compact generators from an ObjectMapper are safe to copy into; token buffers, views, custom escaping and pretty printing take the normal path
+            if (gen.getCodec() instanceof ObjectMapper && gen.getPrettyPrinter() == null && gen.getCharacterEscapes() == null
+                    && provider.getActiveView() == null && !gen.canWriteTypeId()) {
+                gen.writeRawValue(fragment((RoomDTO) value, gen, provider, delegate));
+            } else {
+                delegate.serialize(value, gen, provider);
+            }
+        }
+
+        @Override
+        public void resolve(SerializerProvider provider) throws JsonMappingException {
+            if (delegate instanceof ResolvableSerializer resolvable) {
+                resolvable.resolve(provider);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property) throws JsonMappingException {
+            if (delegate instanceof ContextualSerializer contextual) {
+                JsonSerializer<?> contextualDelegate = contextual.createContextual(provider, property);
+                if (contextualDelegate != delegate) {
+                    return new FragmentSerializer((JsonSerializer<Object>) contextualDelegate);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        public boolean isEmpty(SerializerProvider provider, Object value) {
+            return delegate.isEmpty(provider, value);
+        }
+
+        @Override
+        public Class<Object> handledType() {
+            return delegate.handledType();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.HotelBooking.mappers;
+
+import com.example.HotelBooking.dtos.BookingDTO;
+import com.example.HotelBooking.entities.Booking;
+import org.mapstruct.InjectionStrategy;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+
+import java.util.List;
+
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING,
+        injectionStrategy = InjectionStrategy.CONSTRUCTOR,
+        uses = {UserMapper.class, RoomMapper.class})
+public interface BookingMapper {
+
+    @Mapping(target = "roomId", source = "room.id")
+    BookingDTO toDTO(Booking booking);
+
+    List<BookingDTO> toDTOs(List<Booking> bookings);
+
+    Booking toEntity(BookingDTO bookingDTO);
+}
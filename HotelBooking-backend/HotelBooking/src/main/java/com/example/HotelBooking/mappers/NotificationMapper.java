@@ -0,0 +1,25 @@
+package com.example.HotelBooking.mappers;
+
+import com.example.HotelBooking.dtos.NotificationDTO;
+import com.example.HotelBooking.entities.Notification;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+
+import java.util.List;
+
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface NotificationMapper {
+
+    NotificationDTO toDTO(Notification notification);
+
+    List<NotificationDTO> toDTOs(List<Notification> notifications);
+
+    //outbox state is set by NotificationServiceImpl and EmailOutboxDispatcher, never by callers
+    @Mapping(target = "status", ignore = true)
+    @Mapping(target = "attempts", ignore = true)
+    @Mapping(target = "nextAttemptAt", ignore = true)
+    @Mapping(target = "sentAt", ignore = true)
+    @Mapping(target = "lastError", ignore = true)
+    Notification toEntity(NotificationDTO notificationDTO);
+}
@@ -0,0 +1,26 @@
+package com.example.HotelBooking.mappers;
+
+import com.example.HotelBooking.dtos.PaymentDTO;
+import com.example.HotelBooking.entities.PaymentEntity;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+
+import java.util.List;
+
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface PaymentMapper {
+
+    @Mapping(target = "paymentMethod", source = "paymentGateway")
+    @Mapping(target = "status", source = "paymentStatus")
+    @Mapping(target = "booking", ignore = true)
+    @Mapping(target = "approvalLink", ignore = true)
+    PaymentDTO toDTO(PaymentEntity payment);
+
+    List<PaymentDTO> toDTOs(List<PaymentEntity> payments);
+
+    @Mapping(target = "paymentGateway", source = "paymentMethod")
+    @Mapping(target = "paymentStatus", source = "status")
+    @Mapping(target = "user", ignore = true)
+    PaymentEntity toEntity(PaymentDTO paymentDTO);
+}
@@ -0,0 +1,22 @@
+package com.example.HotelBooking.mappers;
+
+import com.example.HotelBooking.dtos.RoomDTO;
+import com.example.HotelBooking.entities.Room;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+
+import java.util.List;
+
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface RoomMapper {
+
+    // the DTO spells it pricepernight, which the frontend reads
+    @Mapping(target = "pricepernight", source = "pricePerNight")
+    RoomDTO toDTO(Room room);
+
+    List<RoomDTO> toDTOs(List<Room> rooms);
+
+    @Mapping(target = "pricePerNight", source = "pricepernight")
+    Room toEntity(RoomDTO roomDTO);
+}
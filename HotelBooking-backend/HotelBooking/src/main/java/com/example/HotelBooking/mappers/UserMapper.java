@@ -0,0 +1,24 @@
+package com.example.HotelBooking.mappers;
+
+import com.example.HotelBooking.dtos.UserDTO;
+import com.example.HotelBooking.entities.User;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+
+import java.util.List;
+
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface UserMapper {
+
+    // the hash is never serialized, so it is not copied out of the entity either;
+    // Lombok names the boolean getter isActive() but the builder method isActive(..)
+    @Mapping(target = "password", ignore = true)
+    @Mapping(target = "isActive", source = "active")
+    UserDTO toDTO(User user);
+
+    List<UserDTO> toDTOs(List<User> users);
+
+    @Mapping(target = "isActive", source = "active")
+    User toEntity(UserDTO userDTO);
+}
@@ -0,0 +1,81 @@
+package com.example.HotelBooking.notifications;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A template split once into literal segments and the {{placeholders}} between them, so rendering is a
+ * walk over two arrays appending into the caller's builder. Values are HTML-escaped for HTML templates.
+ */
+final class CompiledTemplate {
+
+    private final String name;
+    private final String[] literals;
+    private final String[] keys;
+    private final boolean html;
+
+    private CompiledTemplate(String name, String[] literals, String[] keys, boolean html) {
+        this.name = name;
+        this.literals = literals;
+        this.keys = keys;
+        this.html = html;
+    }
+
+    static CompiledTemplate compile(String name, String source, boolean html) {
+        List<String> literals = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = source.indexOf("{{", position);
+            if (open < 0) {
+                break;
+            }
+            int close = source.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalStateException("Unclosed placeholder in email template " + name + " at " + open);
+            }
+            literals.add(source.substring(position, open));
+            keys.add(source.substring(open + 2, close).trim());
+            position = close + 2;
+        }
+        literals.add(source.substring(position));
+        return new CompiledTemplate(name, literals.toArray(new String[0]), keys.toArray(new String[0]), html);
+    }
+
+    void renderTo(StringBuilder out, Map<String, String> values) {
+        for (int i = 0; i < keys.length; i++) {
+            out.append(literals[i]);
+            String value = values.get(keys[i]);
+            if (value == null) {
+                throw new IllegalArgumentException("Missing value for {{" + keys[i] + "}} in email template " + name);
+            }
+            if (html) {
+                appendEscaped(out, value);
+            } else {
+                out.append(value);
+            }
+        }
+        out.append(literals[keys.length]);
+    }
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        int from = 0;
+        for (int i = 0; i < value.length(); i++) {
+            String entity = switch (value.charAt(i)) {
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '&' -> "&amp;";
+                case '"' -> "&quot;";
+                case '\'' -> "&#39;";
+                default -> null;
+            };
+            //copy the clean run before the character in one go
+            if (entity != null) {
+                out.append(value, from, i).append(entity);
+                from = i + 1;
+            }
+        }
+        out.append(value, from, value.length());
+    }
+}
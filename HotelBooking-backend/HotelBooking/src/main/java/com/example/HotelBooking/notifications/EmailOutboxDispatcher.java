@@ -0,0 +1,187 @@
+package com.example.HotelBooking.notifications;
+
+import com.example.HotelBooking.entities.Notification;
+import com.example.HotelBooking.enums.NotificationStatus;
+import com.example.HotelBooking.repositories.NotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drains the notifications outbox. Rows are claimed in batches with FOR UPDATE SKIP LOCKED and leased
+ * by pushing their next attempt out, then the whole batch goes through one JavaMailSender.send call,
+ * which sends every message over a single SMTP connection. Rows are marked SENT afterwards, or
+ * rescheduled with exponential backoff until they run out of attempts and are marked FAILED.
+ *
+ * Delivery is at-least-once: if the process dies between the send and the update, the lease runs out
+ * and the batch is sent again.
+ */
+@Component
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private final NotificationRepository notificationRepository;
+    private final JavaMailSender javaMailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+
+    public EmailOutboxDispatcher(NotificationRepository notificationRepository,
+                                 JavaMailSender javaMailSender,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${notifications.outbox.batch-size:100}") int batchSize,
+                                 @Value("${notifications.outbox.max-batches-per-run:50}") int maxBatchesPerRun,
+                                 @Value("${notifications.outbox.max-attempts:8}") int maxAttempts,
+                                 @Value("${notifications.outbox.backoff:30s}") Duration backoff,
+                                 @Value("${notifications.outbox.max-backoff:1h}") Duration maxBackoff,
+                                 @Value("${notifications.outbox.lease:5m}") Duration lease) {
+        this.notificationRepository = notificationRepository;
+        this.javaMailSender = javaMailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+        this.sent = Counter.builder("notifications.outbox.sent").register(meterRegistry);
+        this.retried = Counter.builder("notifications.outbox.retried").register(meterRegistry);
+        this.failed = Counter.builder("notifications.outbox.failed").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.outbox.poll-interval-ms:2000}")
+    public void dispatch() {
+        //keep going while batches come back full, a backlog should not wait for the next tick
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            if (dispatchBatch() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    //right after a commit, so the email does not wait for the next poll; dropped when the pool is busy
+    @Async("notificationsExecutor")
+    public void dispatchSoon() {
+        dispatch();
+    }
+
+    //returns the number of rows claimed
+    public int dispatchBatch() {
+        List<Notification> batch = transactionTemplate.execute(status -> claim(LocalDateTime.now()));
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<MimeMessage, Notification> byMessage = new IdentityHashMap<>();
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        for (Notification notification : batch) {
+            MimeMessage message = javaMailSender.createMimeMessage();
+            try {
+                toMessage(notification, message);
+            } catch (MessagingException e) {
+                failures.put(message, e);
+            }
+            byMessage.put(message, notification);
+        }
+
+        MimeMessage[] sendable = byMessage.keySet().stream()
+                .filter(message -> !failures.containsKey(message))
+                .toArray(MimeMessage[]::new);
+        try {
+            javaMailSender.send(sendable);
+        } catch (MailSendException e) {
+            //only the listed messages failed, the rest went out on the same connection
+            failures.putAll(e.getFailedMessages());
+            if (e.getFailedMessages().isEmpty()) {
+                Arrays.stream(sendable).forEach(message -> failures.put(message, e));
+            }
+        } catch (MailException e) {
+            Arrays.stream(sendable).forEach(message -> failures.put(message, e));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        byMessage.forEach((message, notification) -> {
+            Exception failure = failures.get(message);
+            if (failure == null) {
+                notification.setStatus(NotificationStatus.SENT);
+                notification.setSentAt(now);
+                notification.setLastError(null);
+                sent.increment();
+            } else {
+                reschedule(notification, failure, now);
+            }
+        });
+        transactionTemplate.executeWithoutResult(status -> notificationRepository.saveAll(batch));
+
+        if (!failures.isEmpty()) {
+            log.warn("Email outbox: {} of {} messages failed, first error: {}", failures.size(), batch.size(),
+                    failures.values().iterator().next().getMessage());
+        }
+        return batch.size();
+    }
+
+    //plain text only, or a text/HTML alternative when the template produced both
+    private static void toMessage(Notification notification, MimeMessage message) throws MessagingException {
+        boolean html = notification.getHtmlBody() != null;
+        MimeMessageHelper helper = new MimeMessageHelper(message, html, StandardCharsets.UTF_8.name());
+        helper.setTo(notification.getRecipient());
+        helper.setSubject(notification.getSubject());
+        if (html) {
+            helper.setText(notification.getBody(), notification.getHtmlBody());
+        } else {
+            helper.setText(notification.getBody());
+        }
+    }
+
+    private List<Notification> claim(LocalDateTime now) {
+        List<Notification> due = notificationRepository.findDueForUpdate(NotificationStatus.PENDING, now, Limit.of(batchSize));
+        for (Notification notification : due) {
+            notification.setAttempts(notification.getAttempts() + 1);
+            notification.setNextAttemptAt(now.plus(lease));
+        }
+        return due;
+    }
+
+    private void reschedule(Notification notification, Exception failure, LocalDateTime now) {
+        String error = String.valueOf(failure.getMessage());
+        notification.setLastError(error.length() > 255 ? error.substring(0, 255) : error);
+        if (notification.getAttempts() >= maxAttempts) {
+            notification.setStatus(NotificationStatus.FAILED);
+            failed.increment();
+            return;
+        }
+        //30s, 1m, 2m, 4m ... capped at max-backoff
+        Duration delay = backoff.multipliedBy(1L << Math.min(notification.getAttempts() - 1, 20));
+        notification.setNextAttemptAt(now.plus(delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay));
+        retried.increment();
+    }
+}
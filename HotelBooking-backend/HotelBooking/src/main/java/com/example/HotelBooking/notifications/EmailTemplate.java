@@ -0,0 +1,16 @@
+package com.example.HotelBooking.notifications;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+//each template is a subject, a plain-text body and an HTML body under notifications.templates.location
+@Getter
+@RequiredArgsConstructor
+public enum EmailTemplate {
+
+    BOOKING_CONFIRMATION("booking-confirmation"),
+    PAYMENT_SUCCESS("payment-success"),
+    PAYMENT_FAILURE("payment-failure");
+
+    private final String fileName;
+}
@@ -0,0 +1,141 @@
+package com.example.HotelBooking.notifications;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternUtils;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Email templates, loaded and compiled once per template and locale. A locale falls back from
+ * name_fr_CA to name_fr to name, file by file, so a translation can override only the subject.
+ * The request locale is first narrowed to the most specific one that has files under the location,
+ * so the cache holds at most one entry per translation on disk whatever Accept-Language says.
+ * Rendering reuses a per-thread builder; the returned strings are the only allocations per part.
+ *
+ * With notifications.templates.reload=true (dev) nothing is cached and every render reads the files
+ * again, so edits under a file: location show up in the next email.
+ */
+@Component
+@Slf4j
+public class NotificationTemplates {
+
+    private static final int MAX_RETAINED_BUILDER = 16 * 1024;
+
+    private final ResourceLoader resourceLoader;
+    private final String location;
+    private final boolean reload;
+    private final Map<Key, CompiledEmail> compiled = new ConcurrentHashMap<>();
+    //file names without extension, e.g. booking-confirmation_fr
+    private volatile Set<String> variants;
+    private final ThreadLocal<StringBuilder> builders = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    private record Key(EmailTemplate template, Locale locale) {
+    }
+
+    private record CompiledEmail(CompiledTemplate subject, CompiledTemplate text, CompiledTemplate html) {
+    }
+
+    public NotificationTemplates(ResourceLoader resourceLoader,
+                                 @Value("${notifications.templates.location:classpath:templates/email/}") String location,
+                                 @Value("${notifications.templates.reload:false}") boolean reload) {
+        this.resourceLoader = resourceLoader;
+        this.location = location.endsWith("/") ? location : location + "/";
+        this.reload = reload;
+        this.variants = scanVariants();
+    }
+
+    public RenderedEmail render(EmailTemplate template, Locale locale, Map<String, String> values) {
+        if (reload) {
+            variants = scanVariants();
+        }
+        Locale templateLocale = templateLocale(template, locale);
+        CompiledEmail email = reload
+                ? compile(template, templateLocale)
+                : compiled.computeIfAbsent(new Key(template, templateLocale), key -> compile(template, templateLocale));
+        return new RenderedEmail(render(email.subject(), values), render(email.text(), values), render(email.html(), values));
+    }
+
+    private String render(CompiledTemplate template, Map<String, String> values) {
+        StringBuilder builder = builders.get();
+        builder.setLength(0);
+        template.renderTo(builder, values);
+        String rendered = builder.toString();
+        //one huge email should not pin a huge buffer to the thread
+        if (builder.capacity() > MAX_RETAINED_BUILDER) {
+            builders.remove();
+        }
+        return rendered;
+    }
+
+    private CompiledEmail compile(EmailTemplate template, Locale locale) {
+        String name = template.getFileName();
+        return new CompiledEmail(
+                CompiledTemplate.compile(name + ".subject", load(name, locale, "subject").strip(), false),
+                CompiledTemplate.compile(name + ".txt", stripFinalNewline(load(name, locale, "txt")), false),
+                CompiledTemplate.compile(name + ".html", load(name, locale, "html"), true));
+    }
+
+    private Locale templateLocale(EmailTemplate template, Locale locale) {
+        String name = template.getFileName();
+        if (!locale.getCountry().isEmpty()
+                && variants.contains(name + "_" + locale.getLanguage() + "_" + locale.getCountry())) {
+            return new Locale(locale.getLanguage(), locale.getCountry());
+        }
+        if (!locale.getLanguage().isEmpty() && variants.contains(name + "_" + locale.getLanguage())) {
+            return new Locale(locale.getLanguage());
+        }
+        return Locale.ROOT;
+    }
+
+    private Set<String> scanVariants() {
+        try {
+            Set<String> found = new HashSet<>();
+            for (Resource resource : ResourcePatternUtils.getResourcePatternResolver(resourceLoader).getResources(location + "*.*")) {
+                String fileName = resource.getFilename();
+                if (fileName != null && fileName.indexOf('.') > 0) {
+                    found.add(fileName.substring(0, fileName.indexOf('.')));
+                }
+            }
+            return found;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list email templates under " + location, e);
+        }
+    }
+
+    private String load(String name, Locale locale, String extension) {
+        String[] candidates = {
+                name + "_" + locale.getLanguage() + "_" + locale.getCountry(),
+                name + "_" + locale.getLanguage(),
+                name
+        };
+        for (String candidate : candidates) {
+            if (candidate.endsWith("_")) {
+                continue;
+            }
+            Resource resource = resourceLoader.getResource(location + candidate + "." + extension);
+            if (resource.exists()) {
+                try {
+                    return resource.getContentAsString(StandardCharsets.UTF_8);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not read email template " + resource, e);
+                }
+            }
+        }
+        throw new IllegalStateException("Email template " + name + "." + extension + " not found under " + location);
+    }
+
+    private static String stripFinalNewline(String source) {
+        return source.endsWith("\n") ? source.substring(0, source.length() - 1) : source;
+    }
+}
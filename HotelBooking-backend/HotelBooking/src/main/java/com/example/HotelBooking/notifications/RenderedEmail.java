@@ -0,0 +1,4 @@
+package com.example.HotelBooking.notifications;
+
+public record RenderedEmail(String subject, String text, String html) {
+}
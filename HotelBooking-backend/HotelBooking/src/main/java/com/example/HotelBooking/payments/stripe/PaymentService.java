@@ -7,9 +7,13 @@ import com.example.HotelBooking.enums.NotificationType;
 import com.example.HotelBooking.enums.PaymentGateway;
 import com.example.HotelBooking.enums.PaymentStatus;
 import com.example.HotelBooking.exceptions.NotFoundException;
+import com.example.HotelBooking.notifications.EmailTemplate;
+import com.example.HotelBooking.notifications.NotificationTemplates;
+import com.example.HotelBooking.notifications.RenderedEmail;
 import com.example.HotelBooking.payments.stripe.dto.PaymentRequest;
 import com.example.HotelBooking.repositories.BookingRepository;
 import com.example.HotelBooking.repositories.PaymentRepository;
+import com.example.HotelBooking.services.BookingReferenceCache;
 import com.example.HotelBooking.services.NotificationService;
 import com.stripe.Stripe;
 import com.stripe.model.PaymentIntent;
@@ -17,10 +21,13 @@ import com.stripe.param.PaymentIntentCreateParams;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Service
 @Slf4j
@@ -30,6 +37,9 @@ public class PaymentService {
     private final BookingRepository bookingRepository;
     private final PaymentRepository paymentRepository;
     private final NotificationService notificationService;
+    private final BookingReferenceCache bookingReferenceCache;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationTemplates notificationTemplates;
 
     @Value("${stripe.api.secret.key}")
     private String secretKey;
@@ -83,35 +93,40 @@ public class PaymentService {
             payment.setFailureReason(paymentRequest.getFailureReason());
         }
 
-        paymentRepository.save(payment); //save payment to DB
+        //create the Notification
 
-        //create and send Notification
+        RenderedEmail email;
+        if(paymentRequest.isSuccess()){
+            booking.setPaymentStatus(PaymentStatus.COMPLETED);
+            email = notificationTemplates.render(EmailTemplate.PAYMENT_SUCCESS, LocaleContextHolder.getLocale(),
+                    Map.of("bookingReference", bookingReference));
+        }
+        else{
+            booking.setPaymentStatus(PaymentStatus.FAILED);
+            email = notificationTemplates.render(EmailTemplate.PAYMENT_FAILURE, LocaleContextHolder.getLocale(),
+                    Map.of("bookingReference", bookingReference,
+                            "failureReason", String.valueOf(paymentRequest.getFailureReason())));
+        }
 
         NotificationDTO notificationDTO = NotificationDTO.builder()
                 .recipient(booking.getUser().getEmail())
                 .type(NotificationType.EMAIL)
                 .bookingReference(bookingReference)
+                .subject(email.subject())
+                .body(email.text())
+                .htmlBody(email.html())
                 .build();
 
-        log.info("About to send notification inside updatePaymentBooking by sms");
+        log.info("Updating booking {}: setting paymentStatus to {}", booking.getId(), booking.getPaymentStatus());
 
-        if(paymentRequest.isSuccess()){
-            booking.setPaymentStatus(PaymentStatus.COMPLETED);
-            log.info("Updating booking {}: setting paymentStatus to {}", booking.getId(), booking.getPaymentStatus());
-            bookingRepository.save(booking);
-            notificationDTO.setSubject("Payment Successful");
-            notificationDTO.setBody("Congratulations!! Your payment for booking with reference " + bookingReference + " is successfully processed. Thank you for your booking.");
-            notificationService.sendEmail(notificationDTO);
-        }
-        else{
-            booking.setPaymentStatus(PaymentStatus.FAILED);
-            log.info("Updating booking {}: setting paymentStatus to {}", booking.getId(), booking.getPaymentStatus());
-            bookingRepository.save(booking);
+        //payment, booking status and the queued email commit together
 
-            notificationDTO.setSubject("Payment Failed");
-            notificationDTO.setBody("Your payment for booking with reference " + bookingReference + " failed with reason" + paymentRequest.getFailureReason());
+        transactionTemplate.executeWithoutResult(status -> {
+            paymentRepository.save(payment); //save payment to DB
+            bookingRepository.save(booking);
             notificationService.sendEmail(notificationDTO);
-        }
+        });
+        bookingReferenceCache.invalidate(bookingReference);
 
 
 
@@ -0,0 +1,18 @@
+package com.example.HotelBooking.repositories;
+
+import com.example.HotelBooking.entities.BookingReferenceSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface BookingReferenceSequenceRepository extends JpaRepository<BookingReferenceSequence, String> {
+
+    // SELECT ... FOR UPDATE, so two instances leasing at the same time get disjoint blocks
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM BookingReferenceSequence s WHERE s.name = :name")
+    Optional<BookingReferenceSequence> findByNameForUpdate(@Param("name") String name);
+}
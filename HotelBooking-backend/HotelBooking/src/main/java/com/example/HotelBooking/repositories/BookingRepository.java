@@ -1,31 +1,90 @@
 package com.example.HotelBooking.repositories;
 
+import com.example.HotelBooking.dtos.BookingDTO;
 import com.example.HotelBooking.entities.Booking;
+import com.example.HotelBooking.enums.BookingStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking,Long> {
 
-    List<Booking> findByUserId(Long userId); // Fetch all bookings for a specific user
+    // booking history of one user with its room, in one query and without loading the user
+    @Query("""
+               SELECT new com.example.HotelBooking.dtos.BookingDTO(
+                   b.id, r.id, r.roomNumber, r.type, r.pricePerNight, r.capacity, r.description, r.imageUrl,
+                   b.paymentStatus, b.checkInDate, b.checkOutDate, b.totalPrice, b.bookingreference,
+                   b.createdAt, b.bookingStatus)
+               FROM Booking b
+               LEFT JOIN b.room r
+               WHERE b.user.id = :userId
+               ORDER BY b.id
+            """)
+    List<BookingDTO> findHistoryByUserId(@Param("userId") Long userId);
+
+    // list rows newest first, below the `after` keyset cursor when one is given; no user or room is loaded
+    @Query("""
+               SELECT new com.example.HotelBooking.dtos.BookingDTO(
+                   b.id, b.room.id, b.paymentStatus, b.checkInDate, b.checkOutDate,
+                   b.totalPrice, b.bookingreference, b.createdAt, b.bookingStatus)
+               FROM Booking b
+               WHERE (:after IS NULL OR b.id < :after)
+               ORDER BY b.id DESC
+            """)
+    List<BookingDTO> findSummaries(@Param("after") Long after, Limit limit);
 
 
     Optional<Booking> findByBookingreference(String bookingreference);
 
+    // forward-only cursor: Connector/J streams row by row when the fetch size is Integer.MIN_VALUE
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+               SELECT b FROM Booking b
+               LEFT JOIN FETCH b.user
+               LEFT JOIN FETCH b.room
+               WHERE (:from IS NULL OR b.createdAt >= :from)
+               AND (:to IS NULL OR b.createdAt < :to)
+               ORDER BY b.id
+            """)
+    Stream<Booking> streamForExport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    List<Booking> findByBookingStatusInAndCheckOutDateGreaterThanEqual(Collection<BookingStatus> statuses, LocalDate checkOutDate); // Active stays not yet finished
+
+
+    @Query("""
+               SELECT CASE WHEN COUNT(n) = 0 THEN true ELSE false END
+                FROM RoomNight n
+                WHERE n.roomId = :roomId
+                  AND n.nightDate BETWEEN :firstNight AND :lastNight
+            """)
+    boolean hasNoNightsBetween(@Param("roomId") Long roomId,
+                               @Param("firstNight") LocalDate firstNight,
+                               @Param("lastNight") LocalDate lastNight);
+
+    // same overlap rule as RoomRepository.findAvailableRooms
+    default boolean isRoomAvailable(Long roomId, LocalDate checkInDate, LocalDate checkOutDate) {
+        return hasNoNightsBetween(roomId, checkInDate, checkOutDate);
+    }
 
     @Query("""
-               SELECT CASE WHEN COUNT(b) = 0 THEN true ELSE false END
-                FROM Booking b
-                WHERE b.room.id = :roomId
-                  AND :checkInDate <= b.checkOutDate
-                  AND :checkOutDate >= b.checkInDate
-                  AND b.bookingStatus IN ('BOOKED', 'CHECKED_IN')
+               SELECT b FROM Booking b
+                WHERE b.bookingStatus IN ('BOOKED', 'CHECKED_IN')
+                  AND b.checkOutDate > :after
+                  AND NOT EXISTS (SELECT n FROM RoomNight n WHERE n.bookingId = b.id)
             """)
-    boolean isRoomAvailable(@Param("roomId") Long roomId,
-                            @Param("checkInDate") LocalDate checkInDate,
-                            @Param("checkOutDate") LocalDate checkOutDate);
+    List<Booking> findActiveBookingsWithoutNights(@Param("after") LocalDate after); // bookings made before room_nights existed
 }
@@ -1,7 +1,24 @@
 package com.example.HotelBooking.repositories;
 
 import com.example.HotelBooking.entities.Notification;
+import com.example.HotelBooking.enums.NotificationStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
+
+    // SELECT ... FOR UPDATE SKIP LOCKED: two dispatchers never claim the same row
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT n FROM Notification n WHERE n.status = :status AND n.nextAttemptAt <= :now ORDER BY n.id")
+    List<Notification> findDueForUpdate(@Param("status") NotificationStatus status, @Param("now") LocalDateTime now, Limit limit);
 }
@@ -1,8 +1,29 @@
 package com.example.HotelBooking.repositories;
 
 import com.example.HotelBooking.entities.PaymentEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
 
 public interface PaymentRepository extends JpaRepository<PaymentEntity, Long> {
 
+    // forward-only cursor: Connector/J streams row by row when the fetch size is Integer.MIN_VALUE
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+               SELECT p FROM PaymentEntity p
+               LEFT JOIN FETCH p.user
+               WHERE (:from IS NULL OR p.paymentDate >= :from)
+               AND (:to IS NULL OR p.paymentDate < :to)
+               ORDER BY p.id
+            """)
+    Stream<PaymentEntity> streamForExport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
@@ -0,0 +1,48 @@
+package com.example.HotelBooking.repositories;
+
+import com.example.HotelBooking.entities.RoomNight;
+import com.example.HotelBooking.entities.RoomNightId;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+
+public interface RoomNightRepository extends JpaRepository<RoomNight, RoomNightId> {
+
+    // one multi-row INSERT for every date in [checkInDate, checkOutDate], check-out day included, so two stays collide on
+    // the primary key exactly when the inclusive overlap rule of isRoomAvailable rejects them, back-to-back stays too
+    @Modifying
+    @Query(value = """
+            INSERT INTO room_nights (room_id, night_date, booking_id)
+            WITH RECURSIVE stay (night_date) AS (
+                SELECT CAST(:checkInDate AS DATE)
+                UNION ALL
+                SELECT night_date + INTERVAL 1 DAY FROM stay WHERE night_date < :checkOutDate
+            )
+            SELECT :roomId, night_date, :bookingId FROM stay
+            """, nativeQuery = true)
+    int reserveNights(@Param("roomId") Long roomId,
+                      @Param("bookingId") Long bookingId,
+                      @Param("checkInDate") LocalDate checkInDate,
+                      @Param("checkOutDate") LocalDate checkOutDate);
+
+    @Modifying
+    @Query("DELETE FROM RoomNight n WHERE n.bookingId = :bookingId")
+    int releaseNights(@Param("bookingId") Long bookingId);
+
+    // true when reserveNights failed on the (room_id, night_date) primary key, i.e. a date was already claimed;
+    // MySQL names the key room_nights.PRIMARY from 8.0.19 and just PRIMARY before
+    static boolean isNightTaken(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                String name = violation.getConstraintName();
+                return "room_nights.PRIMARY".equalsIgnoreCase(name) || "PRIMARY".equalsIgnoreCase(name);
+            }
+        }
+        return false;
+    }
+}
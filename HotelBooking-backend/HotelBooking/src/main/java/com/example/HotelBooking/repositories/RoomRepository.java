@@ -1,7 +1,9 @@
 package com.example.HotelBooking.repositories;
 
+import com.example.HotelBooking.dtos.RoomDTO;
 import com.example.HotelBooking.entities.Room;
 import com.example.HotelBooking.enums.RoomType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -11,24 +13,39 @@ import java.util.List;
 
 public interface RoomRepository extends JpaRepository<Room, Long> {
 
+    // room list rows newest first, below the `after` keyset cursor when one is given
+    // (arguments follow the field order of RoomDTO's all-args constructor)
+    @Query("""
+            SELECT new com.example.HotelBooking.dtos.RoomDTO(
+                r.id, r.roomNumber, r.type, r.pricePerNight, r.capacity, r.description, r.imageUrl)
+            FROM Room r
+            WHERE (:after IS NULL OR r.id < :after)
+            ORDER BY r.id DESC
+            """)
+    List<RoomDTO> findSummaries(@Param("after") Long after, Limit limit);
+
     @Query("""
             SELECT r FROM Room r
             WHERE
-                r.id NOT IN (
-                    SELECT b.room.id
-                    FROM Booking b
-                    WHERE :checkInDate <= b.checkOutDate
-                    AND :checkOutDate >= b.checkInDate
-                    AND b.bookingStatus IN ('BOOKED', 'CHECKED_IN')
+                NOT EXISTS (
+                    SELECT n FROM RoomNight n
+                    WHERE n.roomId = r.id
+                    AND n.nightDate BETWEEN :firstNight AND :lastNight
                 )
                 AND (:roomType IS NULL OR r.type = :roomType)
             """)
-    List<Room> findAvailableRooms(
-            @Param("checkInDate") LocalDate checkInDate,
-            @Param("checkOutDate") LocalDate checkOutDate,
+    List<Room> findRoomsWithoutNightsBetween(
+            @Param("firstNight") LocalDate firstNight,
+            @Param("lastNight") LocalDate lastNight,
             @Param("roomType") RoomType roomType
     );
 
+    // room_nights holds every date of a stay, check-out day included, so a stay blocks [checkInDate, checkOutDate]
+    // when one of its dates falls inside it
+    default List<Room> findAvailableRooms(LocalDate checkInDate, LocalDate checkOutDate, RoomType roomType) {
+        return findRoomsWithoutNightsBetween(checkInDate, checkOutDate, roomType);
+    }
+
 
     @Query("""
                 SELECT r FROM Room r
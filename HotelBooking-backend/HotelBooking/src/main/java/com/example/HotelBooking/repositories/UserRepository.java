@@ -1,11 +1,23 @@
 package com.example.HotelBooking.repositories;
 
 import com.example.HotelBooking.entities.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmail(String email);
+
+    // users newest first, below the `after` keyset cursor when one is given
+    @Query("""
+            SELECT u FROM User u
+            WHERE (:after IS NULL OR u.id < :after)
+            ORDER BY u.id DESC
+            """)
+    List<User> findNewestFirst(@Param("after") Long after, Limit limit);
 }
@@ -0,0 +1,206 @@
+package com.example.HotelBooking.search;
+
+import com.example.HotelBooking.dtos.RoomDTO;
+import com.example.HotelBooking.entities.Room;
+import com.example.HotelBooking.enums.RoomType;
+import com.example.HotelBooking.mappers.RoomMapper;
+import com.example.HotelBooking.repositories.RoomRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Column-oriented snapshot of the rooms for faceted filtering: capacities, prices in minor units and
+ * type ordinals live in primitive arrays ordered by price, so a price range is two binary searches and
+ * the capacity/type filter is a branch-free scan over the slice. Large slices are scanned in parallel
+ * chunks. The snapshot is immutable and replaced as a whole whenever a room changes.
+ */
+@Component
+@Slf4j
+public class RoomFilterIndex {
+
+    private static final int ALL_TYPES = (1 << RoomType.values().length) - 1;
+
+    private final RoomRepository roomRepository;
+    private final RoomMapper roomMapper;
+    private final int parallelThreshold;
+
+    private final Map<Long, Room> rooms = new HashMap<>();
+    private volatile Columns columns;
+
+    // rooms[i], prices[i], capacities[i] and types[i] describe the same room; ordered by price, then id
+    private record Columns(RoomDTO[] rooms, long[] prices, int[] capacities, byte[] types) {
+    }
+
+    // positions (into the columns) of the rooms that passed every filter, plus per-type counts ignoring the type filter
+    private record Hits(int[] positions, int count, int[] facets) {
+    }
+
+    public record FilterResult(List<RoomDTO> rooms, long totalElements, Map<RoomType, Integer> facets) {
+    }
+
+    public RoomFilterIndex(RoomRepository roomRepository, RoomMapper roomMapper,
+                           @Value("${room.filter.parallel-threshold:65536}") int parallelThreshold) {
+        this.roomRepository = roomRepository;
+        this.roomMapper = roomMapper;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        rooms.clear();
+        for (Room room : roomRepository.findAll()) {
+            rooms.put(room.getId(), room);
+        }
+        columns = toColumns(rooms.values());
+        log.info("Room filter index built: {} rooms", rooms.size());
+    }
+
+    public synchronized void put(Room room) {
+        if (columns != null) {
+            rooms.put(room.getId(), room);
+            columns = toColumns(rooms.values());
+        }
+    }
+
+    public synchronized void remove(Long roomId) {
+        if (columns != null && rooms.remove(roomId) != null) {
+            columns = toColumns(rooms.values());
+        }
+    }
+
+    /**
+     * One page of the rooms with {@code capacity >= minCapacity}, a price within [minPrice, maxPrice] and
+     * one of {@code types} (any type when empty), sorted by price. Facets count the rooms of each type that
+     * pass the capacity and price filters, so the client can show how many results picking a type would give.
+     */
+    public FilterResult filter(int minCapacity, BigDecimal minPrice, BigDecimal maxPrice, Collection<RoomType> types,
+                               Sort.Direction direction, int page, int size) {
+        Columns current = columns;
+        if (current == null) {
+            current = load();
+        }
+
+        int from = minPrice != null ? firstPriceAbove(current.prices(), toMinorUnits(minPrice) - 1) : 0;
+        int to = maxPrice != null ? firstPriceAbove(current.prices(), toMinorUnits(maxPrice)) : current.prices().length;
+        to = Math.max(from, to);
+
+        int typeMask = ALL_TYPES;
+        if (types != null && !types.isEmpty()) {
+            typeMask = 0;
+            for (RoomType type : types) {
+                typeMask |= 1 << type.ordinal();
+            }
+        }
+
+        Hits hits = to - from >= parallelThreshold
+                ? scanParallel(current, from, to, minCapacity, typeMask)
+                : scan(current, from, to, minCapacity, typeMask);
+
+        List<RoomDTO> pageRooms = new ArrayList<>();
+        long first = (long) page * size;
+        for (long k = first; k < Math.min(first + size, hits.count()); k++) {
+            int at = direction == Sort.Direction.DESC ? hits.count() - 1 - (int) k : (int) k;
+            pageRooms.add(current.rooms()[hits.positions()[at]]);
+        }
+
+        Map<RoomType, Integer> facets = new EnumMap<>(RoomType.class);
+        for (RoomType type : RoomType.values()) {
+            facets.put(type, hits.facets()[type.ordinal()]);
+        }
+        return new FilterResult(pageRooms, hits.count(), facets);
+    }
+
+    //a request that arrives before the startup build does the build itself
+    private synchronized Columns load() {
+        if (columns == null) {
+            rebuild();
+        }
+        return columns;
+    }
+
+    private static Hits scan(Columns columns, int from, int to, int minCapacity, int typeMask) {
+        int[] capacities = columns.capacities();
+        byte[] types = columns.types();
+        int[] positions = new int[to - from];
+        int[] facets = new int[RoomType.values().length];
+        int count = 0;
+
+        for (int i = from; i < to; i++) {
+            // 1 when capacities[i] >= minCapacity: the sign bit of (minCapacity - capacity - 1)
+            int capacityOk = (int) (((long) minCapacity - capacities[i] - 1) >>> 63);
+            int typeOk = (typeMask >>> types[i]) & 1;
+            facets[types[i]] += capacityOk;
+            positions[count] = i;
+            count += capacityOk & typeOk;
+        }
+        return new Hits(positions, count, facets);
+    }
+
+    //scans fixed-size chunks on the common pool and concatenates them in order, so the price order survives
+    private Hits scanParallel(Columns columns, int from, int to, int minCapacity, int typeMask) {
+        int chunkSize = Math.max(parallelThreshold / 4, 1);
+        int chunks = (to - from + chunkSize - 1) / chunkSize;
+        List<Hits> parts = IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> scan(columns, from + c * chunkSize, Math.min(to, from + (c + 1) * chunkSize), minCapacity, typeMask))
+                .toList();
+
+        int[] positions = new int[parts.stream().mapToInt(Hits::count).sum()];
+        int[] facets = new int[RoomType.values().length];
+        int count = 0;
+        for (Hits part : parts) {
+            System.arraycopy(part.positions(), 0, positions, count, part.count());
+            count += part.count();
+            for (int t = 0; t < facets.length; t++) {
+                facets[t] += part.facets()[t];
+            }
+        }
+        return new Hits(positions, count, facets);
+    }
+
+    private Columns toColumns(Collection<Room> source) {
+        List<Room> sorted = new ArrayList<>(source);
+        sorted.sort(Comparator.comparingLong((Room room) -> toMinorUnits(room.getPricePerNight())).thenComparing(Room::getId));
+
+        int n = sorted.size();
+        RoomDTO[] dtos = new RoomDTO[n];
+        long[] prices = new long[n];
+        int[] capacities = new int[n];
+        byte[] types = new byte[n];
+        for (int i = 0; i < n; i++) {
+            Room room = sorted.get(i);
+            dtos[i] = roomMapper.toDTO(room);
+            prices[i] = toMinorUnits(room.getPricePerNight());
+            capacities[i] = room.getCapacity() != null ? room.getCapacity() : 0;
+            types[i] = (byte) room.getType().ordinal();
+        }
+        return new Columns(dtos, prices, capacities, types);
+    }
+
+    //index of the first price greater than `price`
+    private static int firstPriceAbove(long[] prices, long price) {
+        int low = 0;
+        int high = prices.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (prices[mid] <= price) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static long toMinorUnits(BigDecimal price) {
+        return price != null ? price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact() : 0;
+    }
+}
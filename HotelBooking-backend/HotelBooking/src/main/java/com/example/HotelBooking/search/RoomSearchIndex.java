@@ -0,0 +1,172 @@
+package com.example.HotelBooking.search;
+
+import com.example.HotelBooking.dtos.RoomDTO;
+import com.example.HotelBooking.entities.Room;
+import com.example.HotelBooking.mappers.RoomMapper;
+import com.example.HotelBooking.repositories.RoomRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory trigram index over the room fields searched by {@code RoomRepository.searchRooms}:
+ * room number, type, price, capacity and description. A query of three or more characters only
+ * verifies the rooms present in the postings of all of its trigrams; shorter queries check every room.
+ * Matching follows the SQL query (case-insensitive substring, exact type name) with the input taken
+ * literally, and results are ranked by which field matched.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RoomSearchIndex {
+
+    private final RoomRepository roomRepository;
+    private final RoomMapper roomMapper;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    //searchable text of one room, lower-cased the way the MySQL collation compares it
+    private record Entry(RoomDTO room, String roomNumber, String type, String price, String capacity,
+                         String description) {
+
+        Set<String> trigrams() {
+            Set<String> trigrams = new HashSet<>();
+            for (String field : Arrays.asList(roomNumber, type, price, capacity, description)) {
+                addTrigrams(field, trigrams);
+            }
+            return trigrams;
+        }
+
+        // 0 when the room does not match at all
+        int score(String query) {
+            int score = 0;
+            if (query.equals(roomNumber)) score += 8;
+            if (query.equals(type)) score += 4;
+            if (contains(roomNumber, query)) score += 2;
+            if (contains(price, query) || contains(capacity, query) || contains(description, query)) score += 1;
+            return score;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        entries.clear();
+        postings.clear();
+        List<Room> rooms = roomRepository.findAll();
+        for (Room room : rooms) {
+            put(room);
+        }
+        ready = true;
+        log.info("Room search index built: {} rooms, {} trigrams", rooms.size(), postings.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public synchronized void put(Room room) {
+        remove(room.getId());
+        Entry entry = new Entry(
+                roomMapper.toDTO(room),
+                lower(room.getRoomNumber()),
+                room.getType() != null ? room.getType().name().toLowerCase(Locale.ROOT) : null,
+                room.getPricePerNight() != null ? lower(room.getPricePerNight().setScale(2, RoundingMode.HALF_UP)) : null,
+                lower(room.getCapacity()),
+                lower(room.getDescription()));
+        entries.put(room.getId(), entry);
+        for (String trigram : entry.trigrams()) {
+            postings.computeIfAbsent(trigram, t -> ConcurrentHashMap.newKeySet()).add(room.getId());
+        }
+    }
+
+    public synchronized void remove(Long roomId) {
+        Entry previous = entries.remove(roomId);
+        if (previous == null) {
+            return;
+        }
+        for (String trigram : previous.trigrams()) {
+            Set<Long> ids = postings.get(trigram);
+            if (ids != null) {
+                ids.remove(roomId);
+                if (ids.isEmpty()) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+    }
+
+    public List<RoomDTO> search(String input) {
+        String query = input.toLowerCase(Locale.ROOT);
+
+        Collection<Long> candidates = query.length() < 3 ? entries.keySet() : candidatesFor(query);
+
+        List<Map.Entry<Integer, RoomDTO>> matches = new ArrayList<>();
+        for (Long id : candidates) {
+            Entry entry = entries.get(id);
+            int score = entry != null ? entry.score(query) : 0;
+            if (score > 0) {
+                matches.add(Map.entry(score, entry.room()));
+            }
+        }
+        matches.sort(Comparator.<Map.Entry<Integer, RoomDTO>>comparingInt(Map.Entry::getKey).reversed()
+                .thenComparing(match -> match.getValue().getId()));
+
+        List<RoomDTO> result = new ArrayList<>(matches.size());
+        for (Map.Entry<Integer, RoomDTO> match : matches) {
+            result.add(match.getValue());
+        }
+        return result;
+    }
+
+    //intersection of the postings of every trigram of the query, smallest posting list first
+    private Collection<Long> candidatesFor(String query) {
+        Set<String> trigrams = new HashSet<>();
+        addTrigrams(query, trigrams);
+
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String trigram : trigrams) {
+            Set<Long> ids = postings.get(trigram);
+            if (ids == null) {
+                return List.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private static void addTrigrams(String text, Set<String> trigrams) {
+        if (text == null) {
+            return;
+        }
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            trigrams.add(text.substring(i, i + 3));
+        }
+    }
+
+    private static boolean contains(String field, String query) {
+        return field != null && field.contains(query);
+    }
+
+    private static String lower(Object value) {
+        if (value == null) {
+            return null;
+        }
+        String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+        return text.toLowerCase(Locale.ROOT);
+    }
+}
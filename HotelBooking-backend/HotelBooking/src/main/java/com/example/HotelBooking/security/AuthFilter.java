@@ -42,11 +42,11 @@ public class AuthFilter extends OncePerRequestFilter {
         String token = getTokenFromRequest(request);
         if (StringUtils.hasText(token)) {
             try {
-                String email = jwtUtils.getUsernameFromToken(token);
-                UserDetails userDetails = customUserDetailsService.loadUserByUsername(email);
+                VerifiedToken verifiedToken = jwtUtils.verify(token);
+                UserDetails userDetails = customUserDetailsService.loadUserByUsername(verifiedToken.subject());
 
                 // Validate token and set authentication
-                if (jwtUtils.isTokenValid(token, userDetails)) {
+                if (jwtUtils.isTokenValid(verifiedToken, userDetails)) {
                     UsernamePasswordAuthenticationToken authenticationToken =
                             new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                     authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
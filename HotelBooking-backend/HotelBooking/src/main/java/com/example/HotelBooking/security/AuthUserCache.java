@@ -0,0 +1,35 @@
+package com.example.HotelBooking.security;
+
+import com.example.HotelBooking.cache.VersionedCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Authenticated principals keyed by email, shared by AuthFilter (through CustomUserDetailsService) and
+ * UserService, so an authenticated request does not select its user again. Account updates and deletes
+ * drop the entry; hit/miss counts are published as the "auth.user" cache metrics.
+ */
+@Component
+public class AuthUserCache {
+
+    private final VersionedCache<String, AuthUser> cache;
+
+    public AuthUserCache(MeterRegistry meterRegistry,
+                         @Value("${auth.user-cache.max-size:10000}") long maxSize,
+                         @Value("${auth.user-cache.ttl:5m}") Duration ttl) {
+        this.cache = new VersionedCache<>(meterRegistry, "auth.user", maxSize, ttl);
+    }
+
+    //a load that raced with an account update does not leave the old user behind
+    public AuthUser get(String email, Function<String, AuthUser> loader) {
+        return cache.get(email, loader);
+    }
+
+    public void invalidate(String email) {
+        cache.invalidate(email);
+    }
+}
@@ -14,12 +14,15 @@ import org.springframework.stereotype.Service;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final AuthUserCache authUserCache;
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(username).orElseThrow(() -> new NotFoundException("User Email not found"));
+        return authUserCache.get(username, email -> {
+            User user = userRepository.findByEmail(email).orElseThrow(() -> new NotFoundException("User Email not found"));
 
-        return AuthUser.builder()
-                .user(user)
-                .build();
+            return AuthUser.builder()
+                    .user(user)
+                    .build();
+        });
     }
 }
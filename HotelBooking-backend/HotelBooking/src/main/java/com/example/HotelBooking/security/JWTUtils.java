@@ -1,9 +1,14 @@
 package com.example.HotelBooking.security;
 
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import jakarta.annotation.PostConstruct;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -12,8 +17,12 @@ import org.springframework.stereotype.Service;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.HexFormat;
 
 @Service
 @Slf4j
@@ -21,16 +30,37 @@ public class JWTUtils {
 
     private static final long EXPIRATION_TIME_IN_MILSEC=100L * 60L * 60L * 24L * 30L *6L;
 
-    private SecretKey key;
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final SecretKey key;
+
+    //thread-safe and immutable, built once instead of on every parse
+    private final JwtParser parser;
 
-    @Value("${secreteJwtString}")
-    private String secreteJwtString;
+    //tokens already verified, keyed by their SHA-256 so raw bearer tokens are not kept in memory
+    private final Cache<String, VerifiedToken> verifiedTokens;
 
-    @PostConstruct
-    private void init() {
+    public JWTUtils(@Value("${secreteJwtString}") String secreteJwtString,
+                    @Value("${jwt.verified-cache.max-size:10000}") long maxSize,
+                    @Value("${jwt.verified-cache.ttl:10m}") Duration ttl,
+                    MeterRegistry meterRegistry) {
         byte[] keyByte = secreteJwtString.getBytes(StandardCharsets.UTF_8);
         this.key = new SecretKeySpec(keyByte, "HmacSHA256");
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry(ttl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verified");
     }
+
         public String generateToken(String email){
             return Jwts.builder()
                     .subject(email)
@@ -41,23 +71,47 @@ public class JWTUtils {
 
         }
 
-        public String getUsernameFromToken(String token){
-        return extractClaims(token, Claims::getSubject);
+        //checks the signature and expiry once; repeat requests with the same token are served from the cache
+        public VerifiedToken verify(String token) {
+            String digest = HexFormat.of().formatHex(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+            Instant now = Instant.now();
+            VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+            if (cached != null && !cached.isExpired(now)) {
+                return cached;
+            }
+
+            //throws JwtException for a bad signature, a malformed token or an expired one
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            VerifiedToken verified = new VerifiedToken(claims.getSubject(), claims.getExpiration().toInstant());
+            verifiedTokens.put(digest, verified);
+            return verified;
         }
 
-        private <T> T extractClaims(String token, Function<Claims, T> claimsTFunction) {
-        return claimsTFunction.apply(Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload());
-
+        public String getUsernameFromToken(String token){
+        return verify(token).subject();
         }
 
-        public boolean isTokenValid(String token, UserDetails userDetails){
-            final String username = getUsernameFromToken(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        public boolean isTokenValid(VerifiedToken token, UserDetails userDetails){
+            return (token.subject().equals(userDetails.getUsername()) && !token.isExpired(Instant.now()));
         }
 
-        private boolean isTokenExpired(String token) {
-        return extractClaims(token,Claims::getExpiration).before(new Date());
+    //entries never outlive their token, and never the configured ttl
+    private record TokenExpiry(Duration ttl) implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String digest, VerifiedToken token, long currentTime) {
+            long untilExpiry = Duration.between(Instant.now(), token.expiresAt()).toNanos();
+            return Math.max(0, Math.min(ttl.toNanos(), untilExpiry));
         }
 
+        @Override
+        public long expireAfterUpdate(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+            return expireAfterCreate(digest, token, currentTime);
+        }
 
+        @Override
+        public long expireAfterRead(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
+}
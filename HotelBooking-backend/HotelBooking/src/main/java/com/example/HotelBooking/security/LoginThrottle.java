@@ -0,0 +1,152 @@
+package com.example.HotelBooking.security;
+
+import com.example.HotelBooking.exceptions.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Failed login counts per email and per client IP over a sliding window, checked before the login
+ * touches the database or BCrypt. A key over its limit gets a 429 with Retry-After until enough of its
+ * failures have slid out of the window.
+ *
+ * Each window is a ring of time slots holding LongAdder counts, so recording and checking never lock.
+ * A slot being recycled can drop a concurrent increment; the limits are a load shield, not an exact
+ * quota. Keys live in a bounded cache and disappear once idle for a full window, so a bot spraying
+ * random emails cannot grow it without limit.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final int SLOTS = 10;
+
+    private final long slotMillis;
+    private final int maxFailuresPerEmail;
+    private final int maxFailuresPerIp;
+    private final Cache<String, SlidingWindow> windows;
+    private final Counter throttledByEmail;
+    private final Counter throttledByIp;
+    private final Counter failures;
+
+    public LoginThrottle(MeterRegistry meterRegistry,
+                         @Value("${auth.throttle.window:5m}") Duration window,
+                         @Value("${auth.throttle.max-failures-per-email:10}") int maxFailuresPerEmail,
+                         @Value("${auth.throttle.max-failures-per-ip:100}") int maxFailuresPerIp,
+                         @Value("${auth.throttle.max-keys:100000}") long maxKeys) {
+        this.slotMillis = Math.max(1, window.toMillis() / SLOTS);
+        this.maxFailuresPerEmail = maxFailuresPerEmail;
+        this.maxFailuresPerIp = maxFailuresPerIp;
+        this.windows = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(window)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, windows, "auth.throttle");
+        this.throttledByEmail = Counter.builder("auth.login.throttled").tag("key", "email")
+                .description("Login attempts rejected before any work because the email was over its limit")
+                .register(meterRegistry);
+        this.throttledByIp = Counter.builder("auth.login.throttled").tag("key", "ip")
+                .description("Login attempts rejected before any work because the client IP was over its limit")
+                .register(meterRegistry);
+        this.failures = Counter.builder("auth.login.failures")
+                .description("Failed login attempts counted by the throttle")
+                .register(meterRegistry);
+    }
+
+    public void check(String email, String ip) {
+        long slot = currentSlot();
+        check(windows.getIfPresent(ipKey(ip)), maxFailuresPerIp, slot, throttledByIp);
+        check(windows.getIfPresent(emailKey(email)), maxFailuresPerEmail, slot, throttledByEmail);
+    }
+
+    public void recordFailure(String email, String ip) {
+        long slot = currentSlot();
+        failures.increment();
+        windows.get(ipKey(ip), key -> new SlidingWindow()).record(slot);
+        windows.get(emailKey(email), key -> new SlidingWindow()).record(slot);
+    }
+
+    //the account owner got in, earlier typos should not count against them
+    public void recordSuccess(String email) {
+        windows.invalidate(emailKey(email));
+    }
+
+    private void check(SlidingWindow window, int limit, long slot, Counter throttled) {
+        if (window == null || window.count(slot) < limit) {
+            return;
+        }
+        throttled.increment();
+        long retryAfterMillis = (window.oldestSlot(slot) + SLOTS) * slotMillis - System.currentTimeMillis();
+        throw new TooManyRequestsException("Too many failed login attempts, please try again later",
+                Math.max(1, (retryAfterMillis + 999) / 1000));
+    }
+
+    private long currentSlot() {
+        return System.currentTimeMillis() / slotMillis;
+    }
+
+    private static String emailKey(String email) {
+        return "email:" + (email == null ? "" : email.trim().toLowerCase(Locale.ROOT));
+    }
+
+    private static String ipKey(String ip) {
+        return "ip:" + ip;
+    }
+
+    private static final class SlidingWindow {
+
+        private final AtomicLongArray slotNumbers = new AtomicLongArray(SLOTS);
+        private final LongAdder[] counts = new LongAdder[SLOTS];
+
+        SlidingWindow() {
+            for (int i = 0; i < SLOTS; i++) {
+                counts[i] = new LongAdder();
+                slotNumbers.set(i, Long.MIN_VALUE);
+            }
+        }
+
+        void record(long slot) {
+            int i = (int) (slot % SLOTS);
+            long seen = slotNumbers.get(i);
+            //first write into a slot reused from an older lap clears its count
+            if (seen != slot && slotNumbers.compareAndSet(i, seen, slot)) {
+                counts[i].reset();
+            }
+            counts[i].increment();
+        }
+
+        long count(long slot) {
+            long total = 0;
+            for (int i = 0; i < SLOTS; i++) {
+                if (isLive(slotNumbers.get(i), slot)) {
+                    total += counts[i].sum();
+                }
+            }
+            return total;
+        }
+
+        long oldestSlot(long slot) {
+            long oldest = slot;
+            for (int i = 0; i < SLOTS; i++) {
+                long number = slotNumbers.get(i);
+                if (isLive(number, slot) && counts[i].sum() > 0) {
+                    oldest = Math.min(oldest, number);
+                }
+            }
+            return oldest;
+        }
+
+        private static boolean isLive(long number, long slot) {
+            return number != Long.MIN_VALUE && slot - number < SLOTS;
+        }
+    }
+}
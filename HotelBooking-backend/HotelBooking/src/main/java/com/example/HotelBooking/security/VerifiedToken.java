@@ -0,0 +1,14 @@
+package com.example.HotelBooking.security;
+
+import java.time.Instant;
+
+/**
+ * Claims of a JWT whose signature has already been checked. Only what the filter needs is kept,
+ * so the object is immutable and safe to share from the verified-token cache.
+ */
+public record VerifiedToken(String subject, Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+}
@@ -1,50 +1,78 @@
 package com.example.HotelBooking.services;
 
-import com.example.HotelBooking.entities.BookingReference;
-import com.example.HotelBooking.repositories.BookingReferenceRepository;
-import lombok.RequiredArgsConstructor;
+import com.example.HotelBooking.entities.BookingReferenceSequence;
+import com.example.HotelBooking.repositories.BookingReferenceSequenceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Random;
-
+/**
+ * Hands out booking references from blocks of sequence numbers leased from the database, so only one
+ * booking in {@code booking.reference.block-size} pays a round trip. Every number is used once, and
+ * {@link BookingReferenceCodec} maps distinct numbers to distinct codes, so no existence check is needed.
+ * Numbers left in a block when the application stops are simply skipped.
+ */
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class BookingCodeGenerator {
 
-    private final BookingReferenceRepository bookingReferenceRepository;
+    private static final String SEQUENCE_NAME = "booking";
 
-    public String generateBookingReference() {
-        String bookingReference;
-        do {
-            bookingReference = generateRandomAlphanumericCode(10);
-        } while (isBookingReferenceExists(bookingReference));
-        saveBookingReferenceToDatabase(bookingReference);
-        return bookingReference;
-    }
+    private final BookingReferenceSequenceRepository sequenceRepository;
+    private final BookingReferenceCodec codec;
+    private final TransactionTemplate leaseTransaction;
+    private final int blockSize;
 
-    private String generateRandomAlphanumericCode(int length) {
-        String characters = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
-        Random random = new Random();
+    // [next, limit) is the unused part of the current block, guarded by this
+    private long next;
+    private long limit;
 
-        StringBuilder stringBuilder = new StringBuilder(length);
+    public BookingCodeGenerator(BookingReferenceSequenceRepository sequenceRepository,
+                                BookingReferenceCodec codec,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${booking.reference.block-size:1000}") int blockSize) {
+        this.sequenceRepository = sequenceRepository;
+        this.codec = codec;
+        this.blockSize = blockSize;
+        //the lease commits on its own, never with (or rolled back by) the booking that triggered it
+        this.leaseTransaction = new TransactionTemplate(transactionManager);
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
 
-        for(int i=0; i<length; i++) {
-            int index = random.nextInt(characters.length());
-            stringBuilder.append(characters.charAt(index));
+    public synchronized String generateBookingReference() {
+        if (next == limit) {
+            next = leaseBlock();
+            limit = next + blockSize;
         }
-        return stringBuilder.toString();
+        return codec.encode(next++);
     }
 
-
-
-    private boolean isBookingReferenceExists(String bookingReference) {
-        return bookingReferenceRepository.findByReferenceNo(bookingReference).isPresent();
+    private long leaseBlock() {
+        long start;
+        try {
+            start = lease();
+        } catch (DataIntegrityViolationException | PessimisticLockingFailureException e) {
+            //the V4 migration seeds the row; if it is missing anyway, instances creating it at once hit the key or,
+            //on InnoDB, deadlock on the gap lock of SELECT ... FOR UPDATE. It exists now, so lock it like everybody else
+            start = lease();
+        }
+        log.info("Leased booking reference block [{}, {})", start, start + blockSize);
+        return start;
     }
 
-    private void saveBookingReferenceToDatabase(String bookingReference) {
-        BookingReference newBookingReference = BookingReference.builder().referenceNo(bookingReference).build();
-        bookingReferenceRepository.save(newBookingReference);
+    private long lease() {
+        return leaseTransaction.execute(status -> {
+            BookingReferenceSequence sequence = sequenceRepository.findByNameForUpdate(SEQUENCE_NAME)
+                    .orElseGet(() -> BookingReferenceSequence.builder().name(SEQUENCE_NAME).nextValue(0L).build());
+            long first = sequence.getNextValue();
+            sequence.setNextValue(first + blockSize);
+            sequenceRepository.saveAndFlush(sequence);
+            return first;
+        });
     }
-
-
 }
@@ -0,0 +1,36 @@
+package com.example.HotelBooking.services;
+
+import com.example.HotelBooking.cache.VersionedCache;
+import com.example.HotelBooking.dtos.BookingDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of mapped bookings keyed by booking reference, for guests refreshing their
+ * confirmation page. Status and payment updates drop the booking's entry; hit/miss counts are
+ * published as the "booking.reference" cache metrics.
+ */
+@Component
+public class BookingReferenceCache {
+
+    private final VersionedCache<String, BookingDTO> cache;
+
+    public BookingReferenceCache(MeterRegistry meterRegistry,
+                                 @Value("${booking.reference-cache.max-size:10000}") long maxSize,
+                                 @Value("${booking.reference-cache.ttl:10m}") Duration ttl) {
+        this.cache = new VersionedCache<>(meterRegistry, "booking.reference", maxSize, ttl);
+    }
+
+    //a lookup that raced with an update does not leave the stale booking behind
+    public BookingDTO get(String bookingReference, Function<String, BookingDTO> loader) {
+        return cache.get(bookingReference, loader);
+    }
+
+    public void invalidate(String bookingReference) {
+        cache.invalidate(bookingReference);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.HotelBooking.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Turns a sequence number into a 10-character booking reference: 9 Crockford base32 characters holding a
+ * keyed 45-bit permutation of the number, followed by a Luhn mod 32 check character. Distinct numbers
+ * always give distinct codes, while consecutive numbers look unrelated to anyone without the secret.
+ * The secret must never change once references have been issued, or new codes may repeat old ones.
+ */
+@Component
+public class BookingReferenceCodec {
+
+    public static final int LENGTH = 10;
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int DATA_CHARS = LENGTH - 1;
+    private static final long DOMAIN = 1L << (5 * DATA_CHARS);
+    private static final int HALF_BITS = 23;
+    private static final long HALF_MASK = (1L << HALF_BITS) - 1;
+
+    private final long[] roundKeys;
+
+    public BookingReferenceCodec(@Value("${booking.reference.secret:}") String secret) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("booking.reference.secret is not set: export BOOKING_REFERENCE_SECRET "
+                    + "as a long random value and keep it unchanged once references have been issued");
+        }
+        this.roundKeys = roundKeys(secret);
+    }
+
+    public String encode(long sequence) {
+        if (sequence < 0 || sequence >= DOMAIN) {
+            throw new IllegalStateException("Booking reference sequence exhausted: " + sequence);
+        }
+        long value = permute(sequence);
+
+        char[] code = new char[LENGTH];
+        int[] digits = new int[DATA_CHARS];
+        for (int i = DATA_CHARS - 1; i >= 0; i--) {
+            digits[i] = (int) (value & 31);
+            code[i] = ALPHABET[digits[i]];
+            value >>>= 5;
+        }
+        code[DATA_CHARS] = ALPHABET[checkDigit(digits)];
+        return new String(code);
+    }
+
+    //the Feistel network permutes 46 bits; cycle walking re-applies it until the result is back in the 45-bit domain
+    private long permute(long value) {
+        do {
+            value = feistel(value);
+        } while (value >= DOMAIN);
+        return value;
+    }
+
+    private long feistel(long value) {
+        long left = value >>> HALF_BITS;
+        long right = value & HALF_MASK;
+        for (long key : roundKeys) {
+            long next = left ^ (mix(right ^ key) & HALF_MASK);
+            left = right;
+            right = next;
+        }
+        return (left << HALF_BITS) | right;
+    }
+
+    //splitmix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    //Luhn mod N with N = 32: catches any single substituted character and most adjacent swaps
+    private static int checkDigit(int[] digits) {
+        int factor = 2;
+        int sum = 0;
+        for (int i = digits.length - 1; i >= 0; i--) {
+            int addend = factor * digits[i];
+            sum += addend / 32 + addend % 32;
+            factor = factor == 2 ? 1 : 2;
+        }
+        return (32 - sum % 32) % 32;
+    }
+
+    private static long[] roundKeys(String secret) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            ByteBuffer buffer = ByteBuffer.wrap(digest);
+            long[] keys = new long[4];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = buffer.getLong();
+            }
+            return keys;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -7,6 +7,8 @@ public interface BookingService {
 
     Response getAllBookings();
 
+    Response getBookingsPage(Integer limit, Long after);
+
     Response createBooking(BookingDTO bookingDTO);
 
     Response findBookingByReferenceNo(String bookingReference);
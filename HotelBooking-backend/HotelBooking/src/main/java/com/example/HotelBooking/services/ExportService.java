@@ -0,0 +1,13 @@
+package com.example.HotelBooking.services;
+
+import com.example.HotelBooking.enums.ExportFormat;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+public interface ExportService {
+
+    StreamingResponseBody exportBookings(LocalDate from, LocalDate to, ExportFormat format);
+
+    StreamingResponseBody exportPayments(LocalDate from, LocalDate to, ExportFormat format);
+}
@@ -0,0 +1,32 @@
+package com.example.HotelBooking.services;
+
+import com.example.HotelBooking.exceptions.NameValueRequiredException;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of an id-descending keyset scan. Repositories fetch {@code limit + 1} rows below the cursor;
+ * the extra row only tells whether another page exists, and the last returned id becomes the next cursor.
+ */
+public record KeysetPage<T>(List<T> items, Long nextCursor) {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    public static int checkLimit(Integer limit) {
+        int checked = limit != null ? limit : DEFAULT_LIMIT;
+        if (checked < 1 || checked > MAX_LIMIT) {
+            throw new NameValueRequiredException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return checked;
+    }
+
+    public static <T> KeysetPage<T> of(List<T> fetched, int limit, Function<T, Long> id) {
+        if (fetched.size() <= limit) {
+            return new KeysetPage<>(fetched, null);
+        }
+        List<T> items = fetched.subList(0, limit);
+        return new KeysetPage<>(items, id.apply(items.get(limit - 1)));
+    }
+}
@@ -5,6 +5,7 @@ import com.example.HotelBooking.dtos.NotificationDTO;
 
 public interface NotificationService {
 
+    //queues the email in the outbox as part of the caller's transaction; EmailOutboxDispatcher delivers it
     void sendEmail(NotificationDTO notificationDTO);
 
     void sendSms();
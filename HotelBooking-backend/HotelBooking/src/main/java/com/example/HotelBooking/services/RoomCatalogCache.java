@@ -0,0 +1,149 @@
+package com.example.HotelBooking.services;
+
+import com.example.HotelBooking.dtos.Response;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Serialized room catalog responses (/api/room/all and /api/room/{id}) with their ETags.
+ * The catalog only changes through addRoom, updateRoom and deleteRoom, which bump the version
+ * and drop every cached body.
+ * Only the catalog part is cached: Response.timestamp is cut out and written fresh into every
+ * response, so a client sees the same JSON as before. The ETag is weak because of that field.
+ */
+@Component
+public class RoomCatalogCache {
+
+    //a raw NUL never appears in JSON output (strings escape it), so it marks the timestamp's place unambiguously
+    private static final byte TIMESTAMP_SLOT = 0;
+
+    //root serializers resolved once instead of on every write
+    private final ObjectWriter responseWriter;
+    private final ObjectWriter timestampWriter;
+
+    private final AtomicLong version = new AtomicLong();
+    private final Map<Long, CachedJson> roomsById = new ConcurrentHashMap<>();
+    private volatile CachedJson allRooms;
+
+    //the serialized Response split where its timestamp goes
+    public record CachedJson(byte[] head, byte[] tail, String eTag) {
+
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            //If-None-Match uses the weak comparison, so a client echoing the tag with or without W/ matches
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*") || tag.equals(eTag) || ("W/" + tag).equals(eTag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private abstract static class TimestampSlot {
+        @JsonSerialize(using = TimestampSlotSerializer.class)
+        abstract LocalDateTime getTimestamp();
+    }
+
+    private static final class TimestampSlotSerializer extends JsonSerializer<LocalDateTime> {
+        @Override
+        public void serialize(LocalDateTime value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeRawValue(new char[]{(char) TIMESTAMP_SLOT}, 0, 1);
+        }
+    }
+
+    public RoomCatalogCache(ObjectMapper objectMapper) {
+        //copy() keeps the registered modules (room fragments, java.time) and only adds the mix-in
+        this.responseWriter = objectMapper.copy().addMixIn(Response.class, TimestampSlot.class).writerFor(Response.class);
+        this.timestampWriter = objectMapper.writerFor(LocalDateTime.class);
+    }
+
+    public CachedJson getAllRooms(Supplier<Response> loader) {
+        CachedJson cached = allRooms;
+        if (cached != null) {
+            return cached;
+        }
+        long seen = version.get();
+        CachedJson loaded = serialize(loader.get());
+        allRooms = loaded;
+        if (version.get() != seen) {
+            allRooms = null;
+        }
+        return loaded;
+    }
+
+    public CachedJson getRoom(Long id, Supplier<Response> loader) {
+        CachedJson cached = roomsById.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        long seen = version.get();
+        CachedJson loaded = serialize(loader.get());
+        roomsById.put(id, loaded);
+        if (version.get() != seen) {
+            roomsById.remove(id);
+        }
+        return loaded;
+    }
+
+    public void invalidate() {
+        version.incrementAndGet();
+        allRooms = null;
+        roomsById.clear();
+    }
+
+    //the cached body with the time it is served at, the same bytes Jackson writes for a fresh Response
+    public byte[] body(CachedJson json) {
+        try {
+            byte[] timestamp = timestampWriter.writeValueAsBytes(LocalDateTime.now());
+            byte[] head = json.head();
+            byte[] tail = json.tail();
+            byte[] body = new byte[head.length + timestamp.length + tail.length];
+            System.arraycopy(head, 0, body, 0, head.length);
+            System.arraycopy(timestamp, 0, body, head.length, timestamp.length);
+            System.arraycopy(tail, 0, body, head.length + timestamp.length, tail.length);
+            return body;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response timestamp", e);
+        }
+    }
+
+    private CachedJson serialize(Response response) {
+        try {
+            byte[] body = responseWriter.writeValueAsBytes(response);
+            int slot = indexOf(body, TIMESTAMP_SLOT);
+            // ShallowEtagHeaderFilter's format, marked weak since the served bytes differ in the timestamp
+            return new CachedJson(Arrays.copyOfRange(body, 0, slot), Arrays.copyOfRange(body, slot + 1, body.length),
+                    "W/\"0" + DigestUtils.md5DigestAsHex(body) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize room catalog", e);
+        }
+    }
+
+    private static int indexOf(byte[] body, byte marker) {
+        for (int i = 0; i < body.length; i++) {
+            if (body[i] == marker) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Response serialized without its timestamp");
+    }
+}
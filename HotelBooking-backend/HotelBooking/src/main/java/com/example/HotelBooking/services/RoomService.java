@@ -3,8 +3,10 @@ package com.example.HotelBooking.services;
 import com.example.HotelBooking.dtos.Response;
 import com.example.HotelBooking.dtos.RoomDTO;
 import com.example.HotelBooking.enums.RoomType;
+import org.springframework.data.domain.Sort;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -16,13 +18,20 @@ public interface RoomService {
 
     Response getAllRooms();
 
+    Response getRoomsPage(Integer limit, Long after);
+
     Response getRoomById(Long id);
 
     Response deleteRoom(Long id);
 
    Response getAvailableRooms(LocalDate checkInDate, LocalDate checkOutDate, RoomType roomType);
 
+    Response getAvailabilityCalendar(LocalDate from, LocalDate to, RoomType roomType);
+
     List<RoomType> getAllRoomTypes();
 
     Response searchRooms(String input);
+
+    Response filterRooms(Integer minCapacity, BigDecimal minPrice, BigDecimal maxPrice, List<RoomType> types,
+                         Sort.Direction direction, int page, int size);
 }
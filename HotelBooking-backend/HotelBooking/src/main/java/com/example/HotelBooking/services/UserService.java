@@ -14,6 +14,8 @@ public interface UserService {
 
     Response getAllUsers();
 
+    Response getUsersPage(Integer limit, Long after);
+
     Response getOwnAccountDetails();
 
     User getCurrentLoggedInUser();
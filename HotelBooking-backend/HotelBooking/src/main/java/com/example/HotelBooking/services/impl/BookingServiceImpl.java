@@ -1,5 +1,8 @@
 package com.example.HotelBooking.services.impl;
 
+import com.example.HotelBooking.availability.AvailabilitySearchCache;
+import com.example.HotelBooking.availability.RoomAvailabilityIndex;
+import com.example.HotelBooking.availability.RoomLocks;
 import com.example.HotelBooking.dtos.BookingDTO;
 import com.example.HotelBooking.dtos.NotificationDTO;
 import com.example.HotelBooking.dtos.Response;
@@ -10,24 +13,34 @@ import com.example.HotelBooking.enums.BookingStatus;
 import com.example.HotelBooking.enums.PaymentStatus;
 import com.example.HotelBooking.exceptions.InvalidBookingStateAndDateException;
 import com.example.HotelBooking.exceptions.NotFoundException;
+import com.example.HotelBooking.mappers.BookingMapper;
+import com.example.HotelBooking.notifications.EmailTemplate;
+import com.example.HotelBooking.notifications.NotificationTemplates;
+import com.example.HotelBooking.notifications.RenderedEmail;
 import com.example.HotelBooking.repositories.BookingRepository;
+import com.example.HotelBooking.repositories.RoomNightRepository;
 import com.example.HotelBooking.repositories.RoomRepository;
 import com.example.HotelBooking.services.BookingCodeGenerator;
+import com.example.HotelBooking.services.BookingReferenceCache;
 import com.example.HotelBooking.services.BookingService;
+import com.example.HotelBooking.services.KeysetPage;
 import com.example.HotelBooking.services.NotificationService;
 import com.example.HotelBooking.services.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
-import org.springframework.data.domain.Sort;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
 
 @Service
 @Slf4j
@@ -36,21 +49,22 @@ public class BookingServiceImpl implements BookingService {
 
     private final BookingRepository bookingRepository;
     private final RoomRepository roomRepository;
+    private final RoomNightRepository roomNightRepository;
     private final NotificationService notificationService;
-    private final ModelMapper modelMapper;
+    private final BookingMapper bookingMapper;
     private final UserService userService;
     private final BookingCodeGenerator bookingCodeGenerator;
+    private final RoomAvailabilityIndex roomAvailabilityIndex;
+    private final AvailabilitySearchCache availabilitySearchCache;
+    private final RoomLocks roomLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingReferenceCache bookingReferenceCache;
+    private final NotificationTemplates notificationTemplates;
 
 
     @Override
     public Response getAllBookings() {
-        List<Booking> bookingList = bookingRepository.findAll(Sort.by(Sort.Direction.DESC, "id"));
-        List<BookingDTO> bookingDTOList = modelMapper.map(bookingList, new TypeToken<List<BookingDTO>>(){}.getType());
-
-        for(BookingDTO bookingDTO : bookingDTOList) {
-            bookingDTO.setUser(null);
-            bookingDTO.setRoom(null);
-        }
+        List<BookingDTO> bookingDTOList = bookingRepository.findSummaries(null, Limit.unlimited());
 
         return Response.builder()
                 .status(200)
@@ -59,6 +73,20 @@ public class BookingServiceImpl implements BookingService {
                 .build();
     }
 
+    @Override
+    public Response getBookingsPage(Integer limit, Long after) {
+        int pageLimit = KeysetPage.checkLimit(limit);
+        List<BookingDTO> fetched = bookingRepository.findSummaries(after, Limit.of(pageLimit + 1));
+        KeysetPage<BookingDTO> page = KeysetPage.of(fetched, pageLimit, BookingDTO::getId);
+
+        return Response.builder()
+                .status(200)
+                .message("Success")
+                .bookings(page.items())
+                .nextCursor(page.nextCursor())
+                .build();
+    }
+
     @Override
     public Response createBooking(BookingDTO bookingDTO) {
         User currentUser = userService.getCurrentLoggedInUser();
@@ -82,11 +110,9 @@ public class BookingServiceImpl implements BookingService {
         if (bookingDTO.getCheckInDate().isEqual(bookingDTO.getCheckOutDate())) {
             throw new InvalidBookingStateAndDateException("Check-in date cannot be the same as check-out date");
         }
-        //validate room availability
+        //validate room availability against room_nights (early answer, repeated under the room lock when committing)
 
-        boolean isRoomAvailable = bookingRepository.isRoomAvailable(room.getId(), bookingDTO.getCheckInDate(), bookingDTO.getCheckOutDate());
-
-        if (!isRoomAvailable) {
+        if (!bookingRepository.isRoomAvailable(room.getId(), bookingDTO.getCheckInDate(), bookingDTO.getCheckOutDate())) {
             throw new InvalidBookingStateAndDateException("Room is not available for the selected dates");
 
         }
@@ -107,8 +133,6 @@ public class BookingServiceImpl implements BookingService {
         booking.setPaymentStatus(PaymentStatus.PENDING);
         booking.setCreatedAt(LocalDateTime.now());
 
-        bookingRepository.save(booking);
-
         //generate the payment url which will be sent via mail
 
         String paymentUrl = "http://localhost:3000/payment/" + bookingReference + "/" + totalPrice;
@@ -117,14 +141,20 @@ public class BookingServiceImpl implements BookingService {
 
         //send notification via email
 
+        RenderedEmail email = notificationTemplates.render(EmailTemplate.BOOKING_CONFIRMATION, LocaleContextHolder.getLocale(),
+                Map.of("paymentUrl", paymentUrl, "bookingReference", bookingReference));
+
         NotificationDTO notificationDTO = NotificationDTO.builder()
                 .recipient(currentUser.getEmail())
-                .subject("Booking Confirmation")
-                .body(String.format("Your booking has been Created successfully. Please proceed with your payment using the payment link below " + "\n%s" ,paymentUrl))
+                .subject(email.subject())
+                .body(email.text())
+                .htmlBody(email.html())
                 .bookingReference(bookingReference)
                 .build();
 
-        notificationService.sendEmail(notificationDTO);
+        //the confirmation is queued in the same transaction as the booking
+
+        commitBooking(booking, notificationDTO);
 
 
         return Response.builder()
@@ -138,10 +168,12 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public Response findBookingByReferenceNo(String bookingReference) {
-        Booking booking = bookingRepository.findByBookingreference(bookingReference)
-                .orElseThrow(() -> new NotFoundException("Booking with reference No: " + bookingReference + " not found"));
+        BookingDTO bookingDTO = bookingReferenceCache.get(bookingReference, reference -> {
+            Booking booking = bookingRepository.findByBookingreference(reference)
+                    .orElseThrow(() -> new NotFoundException("Booking with reference No: " + reference + " not found"));
+            return bookingMapper.toDTO(booking);
+        });
 
-        BookingDTO bookingDTO = modelMapper.map(booking, BookingDTO.class);
         return Response.builder()
                 .status(200)
                 .message("successs")
@@ -159,6 +191,8 @@ public class BookingServiceImpl implements BookingService {
         Booking existingBooking = bookingRepository.findById(bookingDTO.getId())
                 .orElseThrow(() -> new NotFoundException("Booking not found"));
 
+        BookingStatus previousStatus = existingBooking.getBookingStatus();
+
         if(bookingDTO.getBookingStatus() != null) {
             existingBooking.setBookingStatus(bookingDTO.getBookingStatus());
         }
@@ -167,7 +201,29 @@ public class BookingServiceImpl implements BookingService {
             existingBooking.setPaymentStatus(bookingDTO.getPaymentStatus());
         }
 
-        bookingRepository.save(existingBooking);
+        boolean wasActive = RoomAvailabilityIndex.ACTIVE_STATUSES.contains(previousStatus);
+        boolean isActive = RoomAvailabilityIndex.ACTIVE_STATUSES.contains(existingBooking.getBookingStatus());
+
+        if(wasActive == isActive) {
+            bookingRepository.save(existingBooking);
+        } else if(isActive) {
+            //a cancelled or checked-out booking is re-opened: its nights have to be claimed again
+            commitBooking(existingBooking, null);
+        } else {
+            Lock roomLock = roomLocks.forRoom(existingBooking.getRoom().getId());
+            roomLock.lock();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    bookingRepository.save(existingBooking);
+                    roomNightRepository.releaseNights(existingBooking.getId());
+                });
+                roomAvailabilityIndex.release(existingBooking);
+                availabilitySearchCache.invalidateOverlapping(existingBooking.getCheckInDate(), existingBooking.getCheckOutDate());
+            } finally {
+                roomLock.unlock();
+            }
+        }
+        bookingReferenceCache.invalidate(existingBooking.getBookingreference());
 
         return Response.builder()
                 .status(200)
@@ -175,6 +231,38 @@ public class BookingServiceImpl implements BookingService {
                 .build();
     }
 
+    //the in-process lock stripe keeps same-room commits on this node from racing each other, and the
+    //(room_id, night_date) key on room_nights rejects a date already claimed by any node
+    private void commitBooking(Booking booking, NotificationDTO confirmation) {
+        Long roomId = booking.getRoom().getId();
+        Lock roomLock = roomLocks.forRoom(roomId);
+        roomLock.lock();
+        try {
+            //room_nights, not this node's availability index: bookings made on other nodes are only visible there
+            if (!bookingRepository.isRoomAvailable(roomId, booking.getCheckInDate(), booking.getCheckOutDate())) {
+                throw new InvalidBookingStateAndDateException("Room is not available for the selected dates");
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                //ids come from a sequence now, so the insert is flushed explicitly before room_nights points at it
+                bookingRepository.saveAndFlush(booking);
+                roomNightRepository.reserveNights(roomId, booking.getId(), booking.getCheckInDate(), booking.getCheckOutDate());
+                if (confirmation != null) {
+                    notificationService.sendEmail(confirmation);
+                }
+            });
+            roomAvailabilityIndex.reserve(booking);
+            availabilitySearchCache.invalidateOverlapping(booking.getCheckInDate(), booking.getCheckOutDate());
+        } catch (DataIntegrityViolationException e) {
+            //only a claimed date means the room is taken; any other violation is a real error
+            if (!RoomNightRepository.isNightTaken(e)) {
+                throw e;
+            }
+            throw new InvalidBookingStateAndDateException("Room is not available for the selected dates");
+        } finally {
+            roomLock.unlock();
+        }
+    }
+
     private BigDecimal calculateTptalPrice(Room room, BookingDTO bookingDTO) {
         BigDecimal pricePerNight = room.getPricePerNight();
         long days = ChronoUnit.DAYS.between(bookingDTO.getCheckInDate(), bookingDTO.getCheckOutDate());
@@ -0,0 +1,221 @@
+package com.example.HotelBooking.services.impl;
+
+import com.example.HotelBooking.entities.Booking;
+import com.example.HotelBooking.entities.PaymentEntity;
+import com.example.HotelBooking.entities.Room;
+import com.example.HotelBooking.entities.User;
+import com.example.HotelBooking.enums.ExportFormat;
+import com.example.HotelBooking.exceptions.NameValueRequiredException;
+import com.example.HotelBooking.repositories.BookingRepository;
+import com.example.HotelBooking.repositories.PaymentRepository;
+import com.example.HotelBooking.services.ExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Nightly finance exports. Rows come off a forward-only cursor inside a read-only transaction, are written
+ * straight to the response and detached right after, so memory stays flat however many rows there are.
+ * Date filters are inclusive calendar days on the booking's creation time or the payment date.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ExportServiceImpl implements ExportService {
+
+    private static final List<String> BOOKING_COLUMNS = List.of("id", "bookingReference", "userId", "userEmail",
+            "roomId", "roomNumber", "checkInDate", "checkOutDate", "totalPrice", "bookingStatus", "paymentStatus", "createdAt");
+
+    private static final List<String> PAYMENT_COLUMNS = List.of("id", "transactionId", "bookingReference", "amount",
+            "paymentGateway", "paymentStatus", "paymentDate", "failureReason", "userId", "userEmail");
+
+    private final BookingRepository bookingRepository;
+    private final PaymentRepository paymentRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${export.flush-rows:500}")
+    private int flushRows;
+
+    @Override
+    public StreamingResponseBody exportBookings(LocalDate from, LocalDate to, ExportFormat format) {
+        checkRange(from, to);
+        return out -> export(format, out, BOOKING_COLUMNS, rows -> {
+            try (Stream<Booking> bookings = bookingRepository.streamForExport(startOf(from), endOf(to))) {
+                bookings.forEach(booking -> {
+                    User user = booking.getUser();
+                    Room room = booking.getRoom();
+                    rows.accept(new Object[]{
+                            booking.getId(), booking.getBookingreference(),
+                            user != null ? user.getId() : null, user != null ? user.getEmail() : null,
+                            room != null ? room.getId() : null, room != null ? room.getRoomNumber() : null,
+                            booking.getCheckInDate(), booking.getCheckOutDate(), booking.getTotalPrice(),
+                            booking.getBookingStatus(), booking.getPaymentStatus(), booking.getCreatedAt()});
+                    detach(booking, user, room);
+                });
+            }
+        });
+    }
+
+    @Override
+    public StreamingResponseBody exportPayments(LocalDate from, LocalDate to, ExportFormat format) {
+        checkRange(from, to);
+        return out -> export(format, out, PAYMENT_COLUMNS, rows -> {
+            try (Stream<PaymentEntity> payments = paymentRepository.streamForExport(startOf(from), endOf(to))) {
+                payments.forEach(payment -> {
+                    User user = payment.getUser();
+                    rows.accept(new Object[]{
+                            payment.getId(), payment.getTransactionId(), payment.getBookingReference(), payment.getAmount(),
+                            payment.getPaymentGateway(), payment.getPaymentStatus(), payment.getPaymentDate(),
+                            payment.getFailureReason(),
+                            user != null ? user.getId() : null, user != null ? user.getEmail() : null});
+                    detach(payment, user);
+                });
+            }
+        });
+    }
+
+    private void export(ExportFormat format, OutputStream out, List<String> columns, Consumer<Consumer<Object[]>> source) throws IOException {
+        RowWriter writer = format == ExportFormat.CSV
+                ? new CsvRowWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)), columns)
+                : new NdjsonRowWriter(objectMapper.createGenerator(out), columns);
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        long[] written = {0};
+        long start = System.nanoTime();
+        try {
+            readOnly.executeWithoutResult(status -> source.accept(values -> {
+                try {
+                    writer.write(values);
+                    //push a chunk to the client instead of letting the buffers grow
+                    if (++written[0] % flushRows == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        log.info("Exported {} rows as {} in {} ms", written[0], format, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void detach(Object... entities) {
+        for (Object entity : entities) {
+            if (entity != null) {
+                entityManager.detach(entity);
+            }
+        }
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new NameValueRequiredException("Export end date cannot be before its start date");
+        }
+    }
+
+    private static LocalDateTime startOf(LocalDate day) {
+        return day != null ? day.atStartOfDay() : null;
+    }
+
+    //the end date is inclusive, so the range stops at the start of the next day
+    private static LocalDateTime endOf(LocalDate day) {
+        return day != null ? day.plusDays(1).atStartOfDay() : null;
+    }
+
+    private interface RowWriter {
+
+        void write(Object[] values) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    //one JSON object per line, written with the application's ObjectMapper so dates and enums look like the API
+    private static final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+        private final List<String> columns;
+
+        NdjsonRowWriter(JsonGenerator generator, List<String> columns) {
+            this.generator = generator;
+            this.columns = columns;
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                generator.writeFieldName(columns.get(i));
+                generator.writeObject(values[i]);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+    }
+
+    //RFC 4180: a header line, fields quoted only when they contain a comma, quote or line break
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer, List<String> columns) throws IOException {
+            this.writer = writer;
+            writer.write(String.join(",", columns));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escape(values[i]));
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        private static String escape(Object value) {
+            if (value == null) {
+                return "";
+            }
+            String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                return text;
+            }
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+    }
+}
@@ -2,47 +2,57 @@ package com.example.HotelBooking.services.impl;
 
 import com.example.HotelBooking.dtos.NotificationDTO;
 import com.example.HotelBooking.entities.Notification;
+import com.example.HotelBooking.enums.NotificationStatus;
 import com.example.HotelBooking.enums.NotificationType;
+import com.example.HotelBooking.notifications.EmailOutboxDispatcher;
 import com.example.HotelBooking.repositories.NotificationRepository;
 import com.example.HotelBooking.services.NotificationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationServiceImpl implements NotificationService {
 
-    private final JavaMailSender javaMailSender;
     private final NotificationRepository notificationRepository;
+    private final EmailOutboxDispatcher emailOutboxDispatcher;
 
     @Override
-    @Async
+    @Transactional
     public void sendEmail(NotificationDTO notificationDTO) {
-        log.info("sending email....");
-        SimpleMailMessage simpleMailMessage = new SimpleMailMessage();
-        simpleMailMessage.setTo(notificationDTO.getRecipient());
-        simpleMailMessage.setSubject(notificationDTO.getSubject());
-        simpleMailMessage.setText(notificationDTO.getBody());
-
-        javaMailSender.send(simpleMailMessage);
+        log.info("queueing email....");
 
-        //Save to Database
+        //Save to the outbox, the dispatcher sends it once this transaction commits
 
         Notification notificationToSave = Notification.builder()
                 .recipient(notificationDTO.getRecipient())
                 .subject(notificationDTO.getSubject())
                 .body(notificationDTO.getBody())
+                .htmlBody(notificationDTO.getHtmlBody())
                 .bookingReference(notificationDTO.getBookingReference())
                 .type(NotificationType.EMAIL)
+                .status(NotificationStatus.PENDING)
+                .nextAttemptAt(LocalDateTime.now())
                 .build();
 
         notificationRepository.save(notificationToSave);
 
+        //wake the dispatcher once the row is visible to it
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                emailOutboxDispatcher.dispatchSoon();
+            }
+        });
+
     }
 
     @Override
@@ -1,17 +1,26 @@
 package com.example.HotelBooking.services.impl;
 
+import com.example.HotelBooking.availability.AvailabilitySearchCache;
+import com.example.HotelBooking.availability.RoomAvailabilityIndex;
 import com.example.HotelBooking.dtos.Response;
+import com.example.HotelBooking.dtos.RoomCalendarDTO;
 import com.example.HotelBooking.dtos.RoomDTO;
 import com.example.HotelBooking.entities.Room;
 import com.example.HotelBooking.enums.RoomType;
 import com.example.HotelBooking.exceptions.InvalidBookingStateAndDateException;
+import com.example.HotelBooking.exceptions.NameValueRequiredException;
 import com.example.HotelBooking.exceptions.NotFoundException;
+import com.example.HotelBooking.mappers.RoomMapper;
 import com.example.HotelBooking.repositories.RoomRepository;
+import com.example.HotelBooking.search.RoomFilterIndex;
+import com.example.HotelBooking.search.RoomFilterIndex.FilterResult;
+import com.example.HotelBooking.search.RoomSearchIndex;
+import com.example.HotelBooking.services.KeysetPage;
+import com.example.HotelBooking.services.RoomCatalogCache;
 import com.example.HotelBooking.services.RoomService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -29,7 +38,12 @@ import java.util.UUID;
 public class RoomServiceImpl implements RoomService {
 
     private final RoomRepository roomRepository;
-    private final ModelMapper modelMapper;
+    private final RoomMapper roomMapper;
+    private final RoomAvailabilityIndex roomAvailabilityIndex;
+    private final AvailabilitySearchCache availabilitySearchCache;
+    private final RoomCatalogCache roomCatalogCache;
+    private final RoomSearchIndex roomSearchIndex;
+    private final RoomFilterIndex roomFilterIndex;
 
    // private static final String IMAGE_DIRECTORY = System.getProperty("user.dir") + "/product-Image/";
 
@@ -38,7 +52,7 @@ public class RoomServiceImpl implements RoomService {
 
     @Override
     public Response addRoom(RoomDTO roomDTO, MultipartFile imagefile) {
-        Room roomToSave = modelMapper.map(roomDTO, Room.class);
+        Room roomToSave = roomMapper.toEntity(roomDTO);
 
         if(imagefile != null) {
             String imagePath = saveImageToFrontend(imagefile);
@@ -46,6 +60,11 @@ public class RoomServiceImpl implements RoomService {
 
         }
         roomRepository.save(roomToSave);
+        roomAvailabilityIndex.putRoom(roomToSave);
+        availabilitySearchCache.invalidateAll();
+        roomCatalogCache.invalidate();
+        roomSearchIndex.put(roomToSave);
+        roomFilterIndex.put(roomToSave);
 
         return Response.builder()
                 .status(200)
@@ -84,6 +103,11 @@ public class RoomServiceImpl implements RoomService {
         }
 
         roomRepository.save(existingRoom);
+        roomAvailabilityIndex.putRoom(existingRoom);
+        availabilitySearchCache.invalidateAll();
+        roomCatalogCache.invalidate();
+        roomSearchIndex.put(existingRoom);
+        roomFilterIndex.put(existingRoom);
 
         return Response.builder()
                 .status(200)
@@ -93,8 +117,7 @@ public class RoomServiceImpl implements RoomService {
 
     @Override
     public Response getAllRooms() {
-        List<Room> roomList = roomRepository.findAll(Sort.by(Sort.Direction.DESC, "id"));
-        List<RoomDTO> roomDTOList = modelMapper.map(roomList, new TypeToken<List<RoomDTO>>(){}.getType());
+        List<RoomDTO> roomDTOList = roomRepository.findSummaries(null, Limit.unlimited());
 
         return Response.builder()
                 .status(200)
@@ -103,12 +126,26 @@ public class RoomServiceImpl implements RoomService {
                 .build();
     }
 
+    @Override
+    public Response getRoomsPage(Integer limit, Long after) {
+        int pageLimit = KeysetPage.checkLimit(limit);
+        List<RoomDTO> fetched = roomRepository.findSummaries(after, Limit.of(pageLimit + 1));
+        KeysetPage<RoomDTO> page = KeysetPage.of(fetched, pageLimit, RoomDTO::getId);
+
+        return Response.builder()
+                .status(200)
+                .message("Success")
+                .rooms(page.items())
+                .nextCursor(page.nextCursor())
+                .build();
+    }
+
     @Override
     public Response getRoomById(Long id) {
         Room room = roomRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Room not found"));
 
-        RoomDTO roomDTO = modelMapper.map(room, RoomDTO.class);
+        RoomDTO roomDTO = roomMapper.toDTO(room);
 
         return Response.builder()
                 .status(200)
@@ -124,6 +161,11 @@ public class RoomServiceImpl implements RoomService {
        }
 
        roomRepository.deleteById(id);
+       roomAvailabilityIndex.removeRoom(id);
+       availabilitySearchCache.invalidateAll();
+       roomCatalogCache.invalidate();
+       roomSearchIndex.remove(id);
+       roomFilterIndex.remove(id);
 
        return Response.builder()
                .status(200)
@@ -153,9 +195,11 @@ public class RoomServiceImpl implements RoomService {
         }
 
 
-        List<Room> roomList = roomRepository.findAvailableRooms(checkInDate, checkOutDate, roomType);
+        //answer from the in-memory index, the query is only needed outside its window
 
-        List<RoomDTO> roomDTOList = modelMapper.map(roomList, new TypeToken<List<RoomDTO>>(){}.getType());
+        List<RoomDTO> roomDTOList = availabilitySearchCache.get(checkInDate, checkOutDate, roomType,
+                () -> roomAvailabilityIndex.findAvailableRooms(checkInDate, checkOutDate, roomType)
+                        .orElseGet(() -> roomMapper.toDTOs(roomRepository.findAvailableRooms(checkInDate, checkOutDate, roomType))));
 
         return Response.builder()
                 .status(200)
@@ -164,6 +208,31 @@ public class RoomServiceImpl implements RoomService {
                 .build();
     }
 
+    @Override
+    public Response getAvailabilityCalendar(LocalDate from, LocalDate to, RoomType roomType) {
+
+        //validation : Ensure the first night is not before today
+
+        if(from.isBefore(LocalDate.now())) {
+            throw new InvalidBookingStateAndDateException("Calendar cannot start before today");
+        }
+
+        //validation : Ensure the range covers at least one night
+
+        if(!to.isAfter(from)) {
+            throw new InvalidBookingStateAndDateException("Calendar end date must be after its start date");
+        }
+
+        List<RoomCalendarDTO> calendar = roomAvailabilityIndex.getCalendar(from, to, roomType)
+                .orElseThrow(() -> new InvalidBookingStateAndDateException("Calendar is not available for the selected dates"));
+
+        return Response.builder()
+                .status(200)
+                .message("Success")
+                .calendar(calendar)
+                .build();
+    }
+
     @Override
     public List<RoomType> getAllRoomTypes() {
         return Arrays.asList(RoomType.values());
@@ -171,9 +240,13 @@ public class RoomServiceImpl implements RoomService {
 
     @Override
     public Response searchRooms(String input) {
-        List<Room> roomList = roomRepository.searchRooms(input);
-
-        List<RoomDTO> roomDTOList = modelMapper.map(roomList, new TypeToken<List<RoomDTO>>(){}.getType());
+        List<RoomDTO> roomDTOList;
+        if (roomSearchIndex.isReady()) {
+            roomDTOList = roomSearchIndex.search(input);
+        } else {
+            List<Room> roomList = roomRepository.searchRooms(input);
+            roomDTOList = roomMapper.toDTOs(roomList);
+        }
 
         return Response.builder()
                 .status(200)
@@ -182,6 +255,35 @@ public class RoomServiceImpl implements RoomService {
                 .build();
     }
 
+    @Override
+    public Response filterRooms(Integer minCapacity, BigDecimal minPrice, BigDecimal maxPrice, List<RoomType> types,
+                                Sort.Direction direction, int page, int size) {
+
+        //validation : Ensure the page is within bounds
+
+        if (page < 0 || size < 1 || size > 100) {
+            throw new NameValueRequiredException("Page must be 0 or more and size between 1 and 100");
+        }
+
+        //validation : Ensure the price range is not inverted
+
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new NameValueRequiredException("Minimum price cannot be greater than maximum price");
+        }
+
+        FilterResult result = roomFilterIndex.filter(minCapacity != null ? minCapacity : 0, minPrice, maxPrice,
+                types, direction, page, size);
+
+        return Response.builder()
+                .status(200)
+                .message("Success")
+                .rooms(result.rooms())
+                .facets(result.facets())
+                .totalElements(result.totalElements())
+                .totalPages((int) ((result.totalElements() + size - 1) / size))
+                .build();
+    }
+
 
 
 //    private String saveImage(MultipartFile imagefile) {
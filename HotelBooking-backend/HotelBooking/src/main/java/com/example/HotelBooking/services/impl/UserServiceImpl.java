@@ -1,22 +1,25 @@
 package com.example.HotelBooking.services.impl;
 
 import com.example.HotelBooking.dtos.*;
-import com.example.HotelBooking.entities.Booking;
 import com.example.HotelBooking.entities.User;
 import com.example.HotelBooking.enums.UserRole;
 import com.example.HotelBooking.exceptions.InvalidCredentialException;
 import com.example.HotelBooking.exceptions.NotFoundException;
+import com.example.HotelBooking.mappers.UserMapper;
 import com.example.HotelBooking.repositories.BookingRepository;
 import com.example.HotelBooking.repositories.UserRepository;
+import com.example.HotelBooking.security.AuthUser;
+import com.example.HotelBooking.security.AuthUserCache;
+import com.example.HotelBooking.security.CustomUserDetailsService;
 import com.example.HotelBooking.security.JWTUtils;
+import com.example.HotelBooking.security.PasswordHasher;
+import com.example.HotelBooking.services.KeysetPage;
 import com.example.HotelBooking.services.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -27,10 +30,12 @@ import java.util.List;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JWTUtils jwtUtils;
-    private final ModelMapper modelMapper;
+    private final UserMapper userMapper;
     private final BookingRepository bookingRepository;
+    private final CustomUserDetailsService customUserDetailsService;
+    private final AuthUserCache authUserCache;
 
     @Override
     public Response registerUser(RegistrationRequest registrationRequest) {
@@ -42,7 +47,7 @@ public class UserServiceImpl implements UserService {
                 .firstName(registrationRequest.getFirstName())
                 .lastName(registrationRequest.getLastName())
                 .email(registrationRequest.getEmail())
-                .password(passwordEncoder.encode(registrationRequest.getPassword()))
+                .password(passwordHasher.encode(registrationRequest.getPassword()))
                 .phoneNumber(registrationRequest.getPhoneNumber())
                 .role(role)
                 .isActive(true)
@@ -60,10 +65,17 @@ public class UserServiceImpl implements UserService {
     public Response loginUser(LoginRequest loginRequest) {
        User user = userRepository.findByEmail(loginRequest.getEmail()).orElseThrow(() -> new NotFoundException("Email not found"));
 
-       if(!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())){
+       if(!passwordHasher.matches(loginRequest.getPassword(), user.getPassword())){
            throw new InvalidCredentialException("Password doesn't match");
        }
 
+       //rehash with the current cost while the plain password is at hand
+       if(passwordHasher.upgradeEncoding(user.getPassword())){
+           user.setPassword(passwordHasher.encode(loginRequest.getPassword()));
+           userRepository.save(user);
+           authUserCache.invalidate(user.getEmail());
+       }
+
        String token = jwtUtils.generateToken(user.getEmail());
 
        return Response.builder()
@@ -78,9 +90,9 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public Response getAllUsers() {
-        List<User> users = userRepository.findAll(Sort.by(Sort.Direction.DESC, "id"));
+        List<User> users = userRepository.findNewestFirst(null, Limit.unlimited());
 
-        List<UserDTO> userDTOList = modelMapper.map(users, new TypeToken<List<UserDTO>>(){}.getType());
+        List<UserDTO> userDTOList = userMapper.toDTOs(users);
 
         return Response.builder()
                 .status(200)
@@ -89,13 +101,28 @@ public class UserServiceImpl implements UserService {
                 .build();
     }
 
+    @Override
+    public Response getUsersPage(Integer limit, Long after) {
+        int pageLimit = KeysetPage.checkLimit(limit);
+        List<User> fetched = userRepository.findNewestFirst(after, Limit.of(pageLimit + 1));
+        KeysetPage<User> page = KeysetPage.of(fetched, pageLimit, User::getId);
+
+        List<UserDTO> userDTOList = userMapper.toDTOs(page.items());
+
+        return Response.builder()
+                .status(200)
+                .message("Success")
+                .users(userDTOList)
+                .nextCursor(page.nextCursor())
+                .build();
+    }
+
     @Override
     public Response getOwnAccountDetails() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByEmail(email).orElseThrow(() -> new NotFoundException("User not found"));
+        User user = getCurrentLoggedInUser();
 
-        log.info("Inside getOwnAccountDetails user email is {}", email);
-        UserDTO userDTO = modelMapper.map(user, UserDTO.class);
+        log.info("Inside getOwnAccountDetails user email is {}", user.getEmail());
+        UserDTO userDTO = userMapper.toDTO(user);
 
         return Response.builder()
                 .status(200)
@@ -107,13 +134,19 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User getCurrentLoggedInUser() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByEmail(email).orElseThrow(() -> new NotFoundException("User not found"));
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        //AuthFilter already resolved the principal for this request
+        if (authentication.getPrincipal() instanceof AuthUser authUser) {
+            return authUser.getUser();
+        }
+        return ((AuthUser) customUserDetailsService.loadUserByUsername(authentication.getName())).getUser();
     }
 
     @Override
     public Response updateOwnAccount(UserDTO userDTO) {
-        User existingUser = getCurrentLoggedInUser();
+        //the cached principal is shared between requests, so edit a fresh copy
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        User existingUser = userRepository.findByEmail(email).orElseThrow(() -> new NotFoundException("User not found"));
         log.info("Inside update user");
 
         if(userDTO.getEmail() != null) existingUser.setEmail(userDTO.getEmail());
@@ -122,10 +155,12 @@ public class UserServiceImpl implements UserService {
         if(userDTO.getPhoneNumber() != null) existingUser.setPhoneNumber(userDTO.getPhoneNumber());
 
         if (userDTO.getPassword() != null && !userDTO.getPassword().isEmpty()) {
-            existingUser.setPassword(passwordEncoder.encode(userDTO.getPassword()));
+            existingUser.setPassword(passwordHasher.encode(userDTO.getPassword()));
 
         }
         userRepository.save(existingUser);
+        authUserCache.invalidate(email);
+        authUserCache.invalidate(existingUser.getEmail());
 
         return Response.builder()
                 .status(200)
@@ -138,6 +173,7 @@ public class UserServiceImpl implements UserService {
     public Response deleteOwnAccount() {
        User user = getCurrentLoggedInUser();
        userRepository.delete(user);
+       authUserCache.invalidate(user.getEmail());
 
        return Response.builder()
                .status(200)
@@ -148,9 +184,7 @@ public class UserServiceImpl implements UserService {
     @Override
     public Response getMyBookingHistory() {
       User user = getCurrentLoggedInUser();
-      List<Booking> bookingList = bookingRepository.findByUserId(user.getId());
-
-      List<BookingDTO> bookingDTOList = modelMapper.map(bookingList, new TypeToken<List<BookingDTO>>(){}.getType());
+      List<BookingDTO> bookingDTOList = bookingRepository.findHistoryByUserId(user.getId());
 
       return Response.builder()
               .status(200)
@@ -0,0 +1,42 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Makes bookings.bookingreference unique, which lookups by reference and the new reference generator rely on.
+ * The old generator only checked its own booking_reference table, so a database may already hold duplicates;
+ * those are listed and the upgrade stops, because which booking keeps a reference is a decision for a person.
+ */
+public class V3__Unique_booking_references extends BaseJavaMigration {
+
+    private static final int MAX_REPORTED = 20;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            List<String> duplicates = new ArrayList<>();
+            try (ResultSet rows = statement.executeQuery("""
+                    SELECT bookingreference, COUNT(*) FROM bookings
+                    WHERE bookingreference IS NOT NULL
+                    GROUP BY bookingreference
+                    HAVING COUNT(*) > 1
+                    LIMIT %d
+                    """.formatted(MAX_REPORTED))) {
+                while (rows.next()) {
+                    duplicates.add(rows.getString(1) + " (" + rows.getLong(2) + " bookings)");
+                }
+            }
+            if (!duplicates.isEmpty()) {
+                throw new IllegalStateException("bookings.bookingreference must be unique before upgrading; "
+                        + "give these bookings distinct references and restart: " + String.join(", ", duplicates));
+            }
+            statement.execute("ALTER TABLE bookings ADD CONSTRAINT uk_bookings_bookingreference UNIQUE (bookingreference)");
+        }
+    }
+}
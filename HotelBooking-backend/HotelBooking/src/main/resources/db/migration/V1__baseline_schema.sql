@@ -0,0 +1,77 @@
+-- Schema as ddl-auto=update created it before migrations took over, constraint names included, so
+-- databases from that time are baselined at this version (spring.flyway.baseline-on-migrate) and
+-- upgraded by the migrations after it.
+
+CREATE TABLE users (
+    id bigint NOT NULL AUTO_INCREMENT,
+    email varchar(255) NOT NULL,
+    password varchar(255) NOT NULL,
+    first_name varchar(255),
+    last_name varchar(255),
+    phone_number varchar(255) NOT NULL,
+    role enum ('ADMIN','CUSTOMER'),
+    is_active bit NOT NULL,
+    created_at datetime(6),
+    PRIMARY KEY (id),
+    CONSTRAINT UK6dotkott2kjsp8vw4d0m25fb7 UNIQUE (email)
+) ENGINE=InnoDB;
+
+CREATE TABLE rooms (
+    id bigint NOT NULL AUTO_INCREMENT,
+    room_number integer,
+    type enum ('DOUBLE','SINGLE','SUITE','TRIPLE') NOT NULL,
+    price_per_night decimal(38,2),
+    capacity integer,
+    description varchar(255),
+    image_url varchar(255),
+    PRIMARY KEY (id),
+    CONSTRAINT UK7ljglxlj90ln3lbas4kl983m2 UNIQUE (room_number)
+) ENGINE=InnoDB;
+
+CREATE TABLE bookings (
+    id bigint NOT NULL AUTO_INCREMENT,
+    user_id bigint,
+    room_id bigint,
+    payment_status enum ('COMPLETED','FAILED','PENDING','REFUNDED','REVERSED'),
+    check_in_date date,
+    check_out_date date,
+    total_price decimal(38,2),
+    bookingreference varchar(255),
+    created_at datetime(6),
+    booking_status enum ('BOOKED','CANCELLED','CHECKED_IN','CHECKED_OUT'),
+    PRIMARY KEY (id),
+    CONSTRAINT FKeyog2oic85xg7hsu2je2lx3s6 FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT FKrgoycol97o21kpjodw1qox4nc FOREIGN KEY (room_id) REFERENCES rooms (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE payments (
+    id bigint NOT NULL AUTO_INCREMENT,
+    transaction_id varchar(255),
+    amount decimal(38,2),
+    payment_gateway enum ('FLUTTERWAVE','PAYPAL','PAYSTACK','STRIPE'),
+    payment_date datetime(6),
+    payment_status enum ('COMPLETED','FAILED','PENDING','REFUNDED','REVERSED'),
+    booking_reference varchar(255),
+    failure_reason varchar(255),
+    user_id bigint,
+    PRIMARY KEY (id),
+    CONSTRAINT FKj94hgy9v5fw1munb90tar2eje FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE notifications (
+    id bigint NOT NULL AUTO_INCREMENT,
+    subject varchar(255),
+    recipient varchar(255) NOT NULL,
+    body varchar(255),
+    booking_reference varchar(255),
+    type enum ('EMAIL','SMS','WHATSAPP'),
+    created_at datetime(6),
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE booking_reference (
+    id bigint NOT NULL AUTO_INCREMENT,
+    reference_no varchar(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT UKrungrlmxl0917k5nh97o8saox UNIQUE (reference_no)
+) ENGINE=InnoDB;
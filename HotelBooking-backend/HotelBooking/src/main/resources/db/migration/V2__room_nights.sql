@@ -0,0 +1,28 @@
+-- One row per room and date a stay occupies, check-in to check-out both included; the primary key is
+-- what keeps two nodes from booking the same room for overlapping or back-to-back dates. It leads with
+-- room_id, so the booking commit check and the availability search (room_id = ? AND night_date BETWEEN)
+-- seek straight to one room's dates.
+CREATE TABLE room_nights (
+    room_id bigint NOT NULL,
+    night_date date NOT NULL,
+    booking_id bigint NOT NULL,
+    PRIMARY KEY (room_id, night_date)
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_room_nights_booking ON room_nights (booking_id);
+
+-- claim the dates of every stay that is still active; where old data already double-books a room the
+-- first stay keeps the date (IGNORE), the same outcome RoomNightBackfill logs as a conflict
+INSERT IGNORE INTO room_nights (room_id, night_date, booking_id)
+WITH RECURSIVE stay (booking_id, room_id, night_date, check_out_date) AS (
+    SELECT id, room_id, check_in_date, check_out_date
+    FROM bookings
+    WHERE booking_status IN ('BOOKED', 'CHECKED_IN')
+      AND check_out_date >= CURRENT_DATE - INTERVAL 1 DAY
+      AND room_id IS NOT NULL
+    UNION ALL
+    SELECT booking_id, room_id, night_date + INTERVAL 1 DAY, check_out_date
+    FROM stay
+    WHERE night_date < check_out_date
+)
+SELECT room_id, night_date, booking_id FROM stay ORDER BY booking_id, night_date;
@@ -0,0 +1,12 @@
+-- References are encoded from numbers leased in blocks from this table (BookingCodeGenerator) instead of
+-- random codes registered in booking_reference; uniqueness is now enforced on bookings itself (V3).
+CREATE TABLE booking_reference_sequence (
+    name varchar(255) NOT NULL,
+    next_value bigint NOT NULL,
+    PRIMARY KEY (name)
+) ENGINE=InnoDB;
+
+-- seeded here so instances never race to create the row on their first lease
+INSERT INTO booking_reference_sequence (name, next_value) VALUES ('booking', 0);
+
+DROP TABLE booking_reference;
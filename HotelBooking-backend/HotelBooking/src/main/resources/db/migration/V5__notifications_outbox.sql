@@ -0,0 +1,17 @@
+-- notifications becomes the email outbox: rows are written PENDING with the booking or payment and
+-- sent later by EmailOutboxDispatcher, optionally with an HTML alternative of the body. Rows are now written in
+-- the same transaction as the payment or booking they report, so the body must hold whatever the template
+-- renders (e.g. a long Stripe failure reason) instead of rolling that transaction back at 255 characters.
+ALTER TABLE notifications
+    MODIFY COLUMN body TEXT,
+    ADD COLUMN html_body TEXT AFTER body,
+    ADD COLUMN status enum ('FAILED','PENDING','SENT') AFTER type,
+    ADD COLUMN attempts integer NOT NULL DEFAULT 0 AFTER status,
+    ADD COLUMN next_attempt_at datetime(6) AFTER attempts,
+    ADD COLUMN sent_at datetime(6) AFTER next_attempt_at,
+    ADD COLUMN last_error varchar(255) AFTER sent_at;
+
+-- rows from before the outbox were only written after the email had gone out
+UPDATE notifications SET status = 'SENT', attempts = 1, sent_at = created_at;
+
+CREATE INDEX idx_notifications_status_next_attempt ON notifications (status, next_attempt_at);
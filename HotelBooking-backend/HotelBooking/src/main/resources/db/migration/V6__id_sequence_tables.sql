@@ -0,0 +1,17 @@
+-- Entity ids come from pooled-lo sequences instead of AUTO_INCREMENT. MySQL has no sequences, so Hibernate
+-- keeps each one in a single-row table; next_val starts past the ids already handed out.
+
+CREATE TABLE bookings_seq (next_val bigint) ENGINE=InnoDB;
+INSERT INTO bookings_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM bookings;
+
+CREATE TABLE notifications_seq (next_val bigint) ENGINE=InnoDB;
+INSERT INTO notifications_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM notifications;
+
+CREATE TABLE payments_seq (next_val bigint) ENGINE=InnoDB;
+INSERT INTO payments_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM payments;
+
+CREATE TABLE rooms_seq (next_val bigint) ENGINE=InnoDB;
+INSERT INTO rooms_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM rooms;
+
+CREATE TABLE users_seq (next_val bigint) ENGINE=InnoDB;
+INSERT INTO users_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM users;
@@ -0,0 +1,15 @@
+-- room_nights lookups by room and date are served by its (room_id, night_date) primary key from V2
+
+-- a room's stays overlapping a date range, covering the status filter; also backs the room_id foreign key
+CREATE INDEX idx_bookings_room_dates ON bookings (room_id, check_in_date, check_out_date, booking_status);
+
+-- booking history of one user (WHERE user_id = ? ORDER BY id, the primary key rides along in the index)
+CREATE INDEX idx_bookings_user ON bookings (user_id);
+
+-- active stays loaded at startup by the availability index and the room_nights backfill
+CREATE INDEX idx_bookings_status_checkout ON bookings (booking_status, check_out_date);
+
+-- payments of one booking
+CREATE INDEX idx_payments_booking_reference ON payments (booking_reference);
+
+-- bookings looked up by reference are served by uk_bookings_bookingreference from V3
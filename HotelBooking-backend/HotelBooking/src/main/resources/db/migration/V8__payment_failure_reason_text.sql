@@ -0,0 +1,2 @@
+-- failure reasons come from Stripe unbounded; a long one must not roll back the payment record it belongs to
+ALTER TABLE payments MODIFY COLUMN failure_reason TEXT;
@@ -0,0 +1,92 @@
+package com.example.HotelBooking.availability;
+
+import com.example.HotelBooking.dtos.RoomDTO;
+import com.example.HotelBooking.entities.Booking;
+import com.example.HotelBooking.entities.Room;
+import com.example.HotelBooking.enums.RoomType;
+import com.example.HotelBooking.mappers.RoomMapperImpl;
+import com.example.HotelBooking.repositories.BookingRepository;
+import com.example.HotelBooking.repositories.RoomRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RoomAvailabilityIndexTest {
+
+    private final LocalDate checkIn = LocalDate.now().plusDays(3);
+    private final Room room = new Room(1L, 101, RoomType.DOUBLE, BigDecimal.valueOf(120), 2, "room", null);
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final RoomRepository roomRepository = mock(RoomRepository.class);
+    private final AvailabilitySearchCache searchCache =
+            new AvailabilitySearchCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+    private RoomAvailabilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(roomRepository.findAll()).thenReturn(List.of(room));
+        when(bookingRepository.findByBookingStatusInAndCheckOutDateGreaterThanEqual(any(), any())).thenReturn(List.of());
+        index = new RoomAvailabilityIndex(bookingRepository, roomRepository, new RoomMapperImpl(), searchCache);
+        ReflectionTestUtils.setField(index, "horizonDays", 60);
+        index.rebuild();
+    }
+
+    @Test
+    void refreshPicksUpBookingsMadeOnOtherNodes() {
+        assertEquals(1, freeRooms());
+
+        when(bookingRepository.findByBookingStatusInAndCheckOutDateGreaterThanEqual(any(), any()))
+                .thenReturn(List.of(booking(7L)));
+        index.rebuild();
+        assertEquals(0, freeRooms());
+
+        //cancelled on the other node
+        when(bookingRepository.findByBookingStatusInAndCheckOutDateGreaterThanEqual(any(), any())).thenReturn(List.of());
+        index.rebuild();
+        assertEquals(1, freeRooms());
+    }
+
+    @Test
+    void writeMadeWhileTheDatabaseIsReadSurvivesTheSwap() {
+        //this node commits a booking after the rebuild read its snapshot
+        when(bookingRepository.findByBookingStatusInAndCheckOutDateGreaterThanEqual(any(), any())).thenAnswer(inv -> {
+            index.reserve(booking(8L));
+            return List.of();
+        });
+        index.rebuild();
+
+        assertEquals(0, freeRooms());
+    }
+
+    @Test
+    void refreshDropsCachedSearches() {
+        searchCache.get(checkIn, checkIn.plusDays(2), null, () -> List.of(RoomDTO.builder().id(1L).build()));
+
+        index.rebuild();
+        assertEquals(List.of(), searchCache.get(checkIn, checkIn.plusDays(2), null, List::of));
+    }
+
+    private int freeRooms() {
+        return index.findAvailableRooms(checkIn, checkIn.plusDays(2), null).orElseThrow().size();
+    }
+
+    private Booking booking(Long id) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setRoom(room);
+        booking.setCheckInDate(checkIn);
+        booking.setCheckOutDate(checkIn.plusDays(2));
+        return booking;
+    }
+}
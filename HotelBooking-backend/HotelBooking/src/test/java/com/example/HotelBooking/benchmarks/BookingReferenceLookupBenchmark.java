@@ -0,0 +1,175 @@
+package com.example.HotelBooking.benchmarks;
+
+import com.example.HotelBooking.dtos.BookingDTO;
+import com.example.HotelBooking.entities.Booking;
+import com.example.HotelBooking.exceptions.NotFoundException;
+import com.example.HotelBooking.mappers.BookingMapper;
+import com.example.HotelBooking.mappers.BookingMapperImpl;
+import com.example.HotelBooking.mappers.RoomMapperImpl;
+import com.example.HotelBooking.mappers.UserMapperImpl;
+import com.example.HotelBooking.repositories.BookingRepository;
+import com.example.HotelBooking.services.BookingReferenceCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.MySQLContainer;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Booking lookup by reference against the size of the bookings table, on a MySQL started with Testcontainers
+ * and migrated by Flyway, so the lookup goes through uk_bookings_bookingreference like in production.
+ * <ul>
+ *     <li>anyReference: findByBookingreference for a reference anywhere in the table, the uncached path
+ *     a first visit takes.</li>
+ *     <li>hotReference / hotReferenceCached: a guest refreshing a confirmation page, i.e. the same small
+ *     set of references, once straight from the repository and once through BookingReferenceCache.</li>
+ * </ul>
+ * Each table size runs in its own fork with a fresh container; seeding a million bookings takes a while.
+ * Needs Docker.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.example.HotelBooking.benchmarks.BookingReferenceLookupBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingReferenceLookupBenchmark {
+
+    private static final int USERS = 1_000;
+    private static final int ROOMS = 200;
+    private static final int HOT_REFERENCES = 1_000;
+    private static final int SEED_BATCH = 10_000;
+
+    @Param({"10000", "100000", "1000000"})
+    public int bookings;
+
+    private MySQLContainer<?> mysql;
+    private ConfigurableApplicationContext context;
+    private BookingRepository bookingRepository;
+    private BookingReferenceCache bookingReferenceCache;
+    private final BookingMapper bookingMapper = new BookingMapperImpl(new UserMapperImpl(), new RoomMapperImpl());
+    private String[] hotReferences;
+
+    //the JPA layer of the application and nothing else: no web, security, mail or schedulers
+    @SpringBootConfiguration
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, FlywayAutoConfiguration.class,
+            HibernateJpaAutoConfiguration.class, JdbcTemplateAutoConfiguration.class, TransactionAutoConfiguration.class})
+    @EntityScan(basePackageClasses = Booking.class)
+    @EnableJpaRepositories(basePackageClasses = BookingRepository.class)
+    static class JpaLayer {
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mysql = new MySQLContainer<>("mysql:8.0").withUrlParam("rewriteBatchedStatements", "true");
+        mysql.start();
+        //command-line arguments, so they win over application.properties
+        context = new SpringApplicationBuilder(JpaLayer.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + mysql.getJdbcUrl(),
+                        "--spring.datasource.username=" + mysql.getUsername(),
+                        "--spring.datasource.password=" + mysql.getPassword());
+        seed(context.getBean(JdbcTemplate.class));
+
+        bookingRepository = context.getBean(BookingRepository.class);
+        bookingReferenceCache = new BookingReferenceCache(new SimpleMeterRegistry(), HOT_REFERENCES * 10, Duration.ofMinutes(10));
+        Random random = new Random(42);
+        hotReferences = new String[HOT_REFERENCES];
+        for (int i = 0; i < HOT_REFERENCES; i++) {
+            hotReferences[i] = reference(1 + random.nextInt(bookings));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        mysql.stop();
+    }
+
+    @Benchmark
+    public BookingDTO anyReference() {
+        return load(reference(1 + ThreadLocalRandom.current().nextInt(bookings)));
+    }
+
+    @Benchmark
+    public BookingDTO hotReference() {
+        return load(hotReferences[ThreadLocalRandom.current().nextInt(HOT_REFERENCES)]);
+    }
+
+    @Benchmark
+    public BookingDTO hotReferenceCached() {
+        return bookingReferenceCache.get(hotReferences[ThreadLocalRandom.current().nextInt(HOT_REFERENCES)], this::load);
+    }
+
+    //what BookingServiceImpl.findBookingByReferenceNo does on a cache miss
+    private BookingDTO load(String reference) {
+        Booking booking = bookingRepository.findByBookingreference(reference)
+                .orElseThrow(() -> new NotFoundException("Booking with reference No: " + reference + " not found"));
+        return bookingMapper.toDTO(booking);
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 1; i <= USERS; i++) {
+            users.add(new Object[]{i, "guest" + i + "@example.com"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, email, password, phone_number, role, is_active) "
+                + "VALUES (?, ?, 'x', '0', 'CUSTOMER', 1)", users);
+
+        List<Object[]> rooms = new ArrayList<>();
+        for (int i = 1; i <= ROOMS; i++) {
+            rooms.add(new Object[]{i, 100 + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO rooms (id, room_number, type, price_per_night, capacity) "
+                + "VALUES (?, ?, 'DOUBLE', 100, 2)", rooms);
+
+        LocalDate firstNight = LocalDate.of(2020, 1, 1);
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH);
+        for (int i = 1; i <= bookings; i++) {
+            LocalDate checkIn = firstNight.plusDays(i % 2000);
+            batch.add(new Object[]{i, i % USERS + 1, i % ROOMS + 1, Date.valueOf(checkIn), Date.valueOf(checkIn.plusDays(2)),
+                    reference(i)});
+            if (batch.size() == SEED_BATCH || i == bookings) {
+                jdbcTemplate.batchUpdate("INSERT INTO bookings (id, user_id, room_id, check_in_date, check_out_date, "
+                        + "bookingreference, booking_status, payment_status) VALUES (?, ?, ?, ?, ?, ?, 'CHECKED_OUT', 'COMPLETED')", batch);
+                batch.clear();
+            }
+        }
+        jdbcTemplate.execute("ANALYZE TABLE users, rooms, bookings");
+    }
+
+    //ten characters like the generated references
+    private static String reference(int booking) {
+        return String.format("R%09d", booking);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BookingReferenceLookupBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.HotelBooking.benchmarks;
+
+import com.example.HotelBooking.notifications.EmailTemplate;
+import com.example.HotelBooking.notifications.NotificationTemplates;
+import com.example.HotelBooking.notifications.RenderedEmail;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Booking confirmation email: the String.format body it replaced against the compiled templates, which
+ * render subject, text and HTML in one call as the booking flow uses them. Run with -prof gc for bytes
+ * allocated per render.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.example.HotelBooking.benchmarks.EmailTemplateBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    private static final String PAYMENT_URL = "http://localhost:3000/payment/7KQ2M9XW4T/360.00";
+
+    private NotificationTemplates templates;
+    private Map<String, String> values;
+
+    @Setup
+    public void setUp() {
+        templates = new NotificationTemplates(new DefaultResourceLoader(), "classpath:templates/email/", false);
+        values = Map.of("paymentUrl", PAYMENT_URL, "bookingReference", "7KQ2M9XW4T");
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        return String.format("Your booking has been Created successfully. Please proceed with your payment using the payment link below " + "\n%s", PAYMENT_URL);
+    }
+
+    @Benchmark
+    public RenderedEmail compiledTemplates() {
+        return templates.render(EmailTemplate.BOOKING_CONFIRMATION, Locale.ENGLISH, values);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EmailTemplateBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.HotelBooking.benchmarks;
+
+import com.example.HotelBooking.security.JWTUtils;
+import com.example.HotelBooking.security.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token verification as AuthFilter does it per request: the old path (three parses, each with a freshly
+ * built parser), a single parse with the prebuilt parser, and JWTUtils.verify served from its cache.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.example.HotelBooking.benchmarks.JwtVerificationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-0123456789";
+
+    private SecretKey key;
+    private JwtParser parser;
+    private JWTUtils jwtUtils;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        key = new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        parser = Jwts.parser().verifyWith(key).build();
+        jwtUtils = new JWTUtils(SECRET, 10_000, Duration.ofMinutes(10), new SimpleMeterRegistry());
+        token = jwtUtils.generateToken("guest@example.com");
+    }
+
+    @Benchmark
+    public boolean threeParses() {
+        String subject = parse().getSubject();
+        return subject.equals(parse().getSubject()) && !parse().getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public VerifiedToken singleParse() {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        return new VerifiedToken(claims.getSubject(), claims.getExpiration().toInstant());
+    }
+
+    @Benchmark
+    public VerifiedToken cachedVerify() {
+        return jwtUtils.verify(token);
+    }
+
+    private Claims parse() {
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtVerificationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.HotelBooking.benchmarks;
+
+import com.example.HotelBooking.dtos.BookingDTO;
+import com.example.HotelBooking.dtos.RoomDTO;
+import com.example.HotelBooking.entities.Booking;
+import com.example.HotelBooking.entities.Room;
+import com.example.HotelBooking.entities.User;
+import com.example.HotelBooking.enums.BookingStatus;
+import com.example.HotelBooking.enums.PaymentStatus;
+import com.example.HotelBooking.enums.RoomType;
+import com.example.HotelBooking.enums.UserRole;
+import com.example.HotelBooking.mappers.BookingMapper;
+import com.example.HotelBooking.mappers.BookingMapperImpl;
+import com.example.HotelBooking.mappers.RoomMapper;
+import com.example.HotelBooking.mappers.RoomMapperImpl;
+import com.example.HotelBooking.mappers.UserMapperImpl;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.TypeToken;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generated MapStruct mappers against the ModelMapper setup they replaced, on lists of 1, 100 and 10k
+ * rooms and bookings (bookings carry their user and room, as on the booking-by-reference page).
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.example.HotelBooking.benchmarks.MapperBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private static final Type ROOM_LIST = new TypeToken<List<RoomDTO>>(){}.getType();
+    private static final Type BOOKING_LIST = new TypeToken<List<BookingDTO>>(){}.getType();
+
+    @Param({"1", "100", "10000"})
+    private int size;
+
+    private List<Room> rooms;
+    private List<Booking> bookings;
+
+    private ModelMapper modelMapper;
+    private RoomMapper roomMapper;
+    private BookingMapper bookingMapper;
+
+    @Setup
+    public void setUp() {
+        //the configuration of the removed ModelMapperConfig
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration()
+                .setFieldMatchingEnabled(true)
+                .setFieldAccessLevel(org.modelmapper.config.Configuration.AccessLevel.PRIVATE)
+                .setMatchingStrategy(MatchingStrategies.STANDARD);
+
+        roomMapper = new RoomMapperImpl();
+        bookingMapper = new BookingMapperImpl(new UserMapperImpl(), roomMapper);
+
+        rooms = new ArrayList<>(size);
+        bookings = new ArrayList<>(size);
+        User user = User.builder().id(1L).email("guest@example.com").firstName("Ada").lastName("Lovelace")
+                .phoneNumber("555-0100").role(UserRole.CUSTOMER).isActive(true).build();
+        for (int i = 0; i < size; i++) {
+            Room room = new Room((long) i, 100 + i, RoomType.values()[i % RoomType.values().length],
+                    BigDecimal.valueOf(9900 + i, 2), 1 + i % 4, "Room " + i, "/rooms/" + i + ".jpg");
+            rooms.add(room);
+            bookings.add(Booking.builder().id((long) i).user(user).room(room)
+                    .paymentStatus(PaymentStatus.PENDING).bookingStatus(BookingStatus.BOOKED)
+                    .checkInDate(LocalDate.of(2026, 1, 1)).checkOutDate(LocalDate.of(2026, 1, 3))
+                    .totalPrice(BigDecimal.valueOf(19800, 2)).bookingreference("REF" + i)
+                    .createdAt(LocalDateTime.of(2025, 12, 1, 12, 0)).build());
+        }
+    }
+
+    @Benchmark
+    public List<RoomDTO> roomsModelMapper() {
+        return modelMapper.map(rooms, ROOM_LIST);
+    }
+
+    @Benchmark
+    public List<RoomDTO> roomsMapStruct() {
+        return roomMapper.toDTOs(rooms);
+    }
+
+    @Benchmark
+    public List<BookingDTO> bookingsModelMapper() {
+        return modelMapper.map(bookings, BOOKING_LIST);
+    }
+
+    @Benchmark
+    public List<BookingDTO> bookingsMapStruct() {
+        return bookingMapper.toDTOs(bookings);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MapperBenchmark.class.getSimpleName()).build()).run();
+    }
+}
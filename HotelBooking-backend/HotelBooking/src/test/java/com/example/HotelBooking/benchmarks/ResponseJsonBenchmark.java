@@ -0,0 +1,84 @@
+package com.example.HotelBooking.benchmarks;
+
+import com.example.HotelBooking.dtos.Response;
+import com.example.HotelBooking.dtos.RoomDTO;
+import com.example.HotelBooking.enums.RoomType;
+import com.example.HotelBooking.json.RoomJsonFragments;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing a room list Response (the /api/room/all and availability payload) with the plain
+ * ObjectMapper against the one carrying the room fragments, with a writer pre-resolved for Response.
+ * Bytes per response are printed once at setup; run with -prof gc for allocations per operation.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.example.HotelBooking.benchmarks.ResponseJsonBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseJsonBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private Response response;
+    private ObjectMapper plain;
+    private ObjectWriter plainWriter;
+    private ObjectWriter fragmentsWriter;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        List<RoomDTO> rooms = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            rooms.add(RoomDTO.builder().id((long) i).roomNumber(100 + i)
+                    .type(RoomType.values()[i % RoomType.values().length])
+                    .pricepernight(BigDecimal.valueOf(9900 + i, 2)).capacity(1 + i % 4)
+                    .description("Sea view room " + i + " with balcony").imageUrl("/rooms/" + i + ".jpg").build());
+        }
+        response = Response.builder().status(200).message("Success").rooms(rooms).build();
+
+        plain = Jackson2ObjectMapperBuilder.json().build();
+        plainWriter = plain.writerFor(Response.class);
+        RoomJsonFragments fragments = new RoomJsonFragments(new SimpleMeterRegistry(), 100_000);
+        fragmentsWriter = Jackson2ObjectMapperBuilder.json().modulesToInstall(fragments.module()).build()
+                .writerFor(Response.class);
+
+        System.out.println("\nbytes per response: " + fragmentsWriter.writeValueAsBytes(response).length);
+    }
+
+    @Benchmark
+    public byte[] objectMapper() throws JsonProcessingException {
+        return plain.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] preResolvedWriter() throws JsonProcessingException {
+        return plainWriter.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] roomFragments() throws JsonProcessingException {
+        return fragmentsWriter.writeValueAsBytes(response);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ResponseJsonBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.HotelBooking.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class VersionedCacheTest {
+
+    private VersionedCache<String, String> cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new VersionedCache<>(new SimpleMeterRegistry(), "test", 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void loadsOnceUntilInvalidated() {
+        assertEquals("v1", cache.get("k", this::load));
+        assertEquals("v1", cache.get("k", this::load));
+
+        cache.invalidate("k");
+        assertEquals("v2", cache.get("k", this::load));
+    }
+
+    @Test
+    void loadRacingWithAnInvalidationIsNotKept() {
+        //the write lands while the old value is being read
+        assertEquals("v1", cache.get("k", key -> {
+            cache.invalidate(key);
+            return load(key);
+        }));
+
+        assertEquals("v2", cache.get("k", this::load));
+    }
+
+    @Test
+    void invalidateIfDropsOnlyMatchingKeys() {
+        cache.get("a", this::load);
+        cache.get("b", this::load);
+
+        cache.invalidateIf("a"::equals);
+        assertEquals("v3", cache.get("a", this::load));
+        assertEquals("v2", cache.get("b", this::load));
+    }
+
+    private String load(String key) {
+        return "v" + loads.incrementAndGet();
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.HotelBooking.json;
+
+import com.example.HotelBooking.dtos.BookingDTO;
+import com.example.HotelBooking.dtos.Response;
+import com.example.HotelBooking.dtos.RoomDTO;
+import com.example.HotelBooking.enums.BookingStatus;
+import com.example.HotelBooking.enums.PaymentStatus;
+import com.example.HotelBooking.enums.RoomType;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RoomJsonFragmentsTest {
+
+    private final Random random = new Random(42);
+    private RoomJsonFragments fragments;
+    private ObjectMapper plain;
+    private ObjectMapper withFragments;
+
+    @BeforeEach
+    void setUp() {
+        fragments = new RoomJsonFragments(new SimpleMeterRegistry(), 1000);
+        plain = Jackson2ObjectMapperBuilder.json().build();
+        withFragments = Jackson2ObjectMapperBuilder.json().modulesToInstall(fragments.module()).build();
+    }
+
+    @Test
+    void roomListsAreByteIdentical() throws Exception {
+        List<RoomDTO> rooms = new ArrayList<>();
+        for (long id = 1; id <= 200; id++) {
+            rooms.add(randomRoom(id));
+        }
+        Response response = Response.builder().status(200).message("Success").rooms(rooms).build();
+
+        // second round is served from the fragments
+        for (int round = 0; round < 2; round++) {
+            assertArrayEquals(plain.writeValueAsBytes(response), withFragments.writeValueAsBytes(response));
+        }
+    }
+
+    @Test
+    void singleRoomAndBookingAreByteIdentical() throws Exception {
+        RoomDTO room = randomRoom(7);
+        BookingDTO booking = BookingDTO.builder()
+                .id(3L)
+                .room(room)
+                .roomId(7L)
+                .paymentStatus(PaymentStatus.PENDING)
+                .bookingStatus(BookingStatus.BOOKED)
+                .checkInDate(LocalDate.of(2026, 3, 1))
+                .checkOutDate(LocalDate.of(2026, 3, 4))
+                .totalPrice(new BigDecimal("360.00"))
+                .bookingreference("ABCDEFGHJK")
+                .createdAt(LocalDateTime.of(2026, 2, 1, 10, 30))
+                .build();
+
+        for (int round = 0; round < 2; round++) {
+            Response single = Response.builder().status(200).message("Success").room(room).build();
+            Response lookup = Response.builder().status(200).message("Success").booking(booking).build();
+            assertArrayEquals(plain.writeValueAsBytes(single), withFragments.writeValueAsBytes(single));
+            assertArrayEquals(plain.writeValueAsBytes(lookup), withFragments.writeValueAsBytes(lookup));
+        }
+    }
+
+    @Test
+    void changedRoomIsNotServedFromAStaleFragment() throws Exception {
+        RoomDTO room = randomRoom(1);
+        withFragments.writeValueAsString(room);
+
+        room.setPricepernight(new BigDecimal("999.00"));
+        room.setDescription(null);
+
+        assertEquals(plain.writeValueAsString(room), withFragments.writeValueAsString(room));
+    }
+
+    @Test
+    void prettyPrintingBypassesTheFragments() throws Exception {
+        RoomDTO room = randomRoom(1);
+        withFragments.writeValueAsString(room);
+
+        assertEquals(plain.writer(SerializationFeature.INDENT_OUTPUT).writeValueAsString(room),
+                withFragments.writer(SerializationFeature.INDENT_OUTPUT).writeValueAsString(room));
+    }
+
+    @Test
+    void mappersSharingTheFragmentsKeepTheirOwnConfiguration() throws Exception {
+        RoomDTO room = randomRoom(1);
+        room.setPricepernight(new BigDecimal("1E+2"));
+        withFragments.writeValueAsString(room);
+
+        ObjectMapper snakeCase = Jackson2ObjectMapperBuilder.json()
+                .propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE).build();
+        ObjectMapper snakeCaseWithFragments = Jackson2ObjectMapperBuilder.json()
+                .propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE).modulesToInstall(fragments.module()).build();
+        assertEquals(snakeCase.writeValueAsString(room), snakeCaseWithFragments.writeValueAsString(room));
+
+        // same mapper, but a writer with a different generator feature
+        assertEquals(plain.writer().with(JsonGenerator.Feature.WRITE_BIGDECIMAL_AS_PLAIN).writeValueAsString(room),
+                withFragments.writer().with(JsonGenerator.Feature.WRITE_BIGDECIMAL_AS_PLAIN).writeValueAsString(room));
+        assertEquals(plain.writeValueAsString(room), withFragments.writeValueAsString(room));
+    }
+
+    private RoomDTO randomRoom(long id) {
+        RoomType[] types = RoomType.values();
+        return RoomDTO.builder()
+                .id(id)
+                .roomNumber(100 + (int) id)
+                .type(types[random.nextInt(types.length)])
+                .pricepernight(BigDecimal.valueOf(50 + random.nextInt(400)).setScale(random.nextBoolean() ? 2 : 0))
+                .capacity(1 + random.nextInt(6))
+                // leave some fields out, NON_NULL must drop them the same way
+                .description(random.nextInt(4) == 0 ? null : "Room \"" + id + "\" with a view é")
+                .imageUrl(random.nextInt(3) == 0 ? null : "/rooms/" + id + ".jpg")
+                .build();
+    }
+}
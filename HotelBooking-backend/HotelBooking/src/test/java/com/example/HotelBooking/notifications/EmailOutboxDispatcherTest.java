@@ -0,0 +1,158 @@
+package com.example.HotelBooking.notifications;
+
+import com.example.HotelBooking.entities.Notification;
+import com.example.HotelBooking.enums.NotificationStatus;
+import com.example.HotelBooking.enums.NotificationType;
+import com.example.HotelBooking.repositories.NotificationRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EmailOutboxDispatcherTest {
+
+    private static final int MESSAGES = 1000;
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP.dynamicPort());
+
+    // stands in for the notifications table
+    private final List<Notification> outbox = new ArrayList<>();
+    private final AtomicLong ids = new AtomicLong();
+    private NotificationRepository notificationRepository;
+
+    @BeforeEach
+    void setUp() {
+        notificationRepository = mock(NotificationRepository.class);
+        when(notificationRepository.findDueForUpdate(any(), any(), any())).thenAnswer(inv -> {
+            NotificationStatus status = inv.getArgument(0);
+            LocalDateTime now = inv.getArgument(1);
+            Limit limit = inv.getArgument(2);
+            return outbox.stream()
+                    .filter(n -> n.getStatus() == status && !n.getNextAttemptAt().isAfter(now))
+                    .limit(limit.max())
+                    .toList();
+        });
+        when(notificationRepository.saveAll(any())).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Test
+    void drainsTheOutboxOverBatchedConnections() {
+        enqueue(MESSAGES);
+        EmailOutboxDispatcher dispatcher = dispatcher(sender(greenMail.getSmtp().getPort()));
+
+        long start = System.nanoTime();
+        dispatcher.dispatch();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(MESSAGES, received.length);
+        long alternatives = Arrays.stream(received).filter(EmailOutboxDispatcherTest::isMultipart).count();
+        assertEquals(MESSAGES / 2, alternatives);
+        assertTrue(outbox.stream().allMatch(n -> n.getStatus() == NotificationStatus.SENT && n.getSentAt() != null));
+        System.out.printf("outbox dispatcher: %d messages in %.2fs, %.0f messages/sec%n", MESSAGES, seconds, MESSAGES / seconds);
+
+        // the old path: one SMTP session per message
+        JavaMailSender sender = sender(greenMail.getSmtp().getPort());
+        int single = MESSAGES / 10;
+        start = System.nanoTime();
+        for (int i = 0; i < single; i++) {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo("guest" + i + "@example.com");
+            message.setSubject("Booking Confirmation");
+            message.setText("body " + i);
+            sender.send(message);
+        }
+        seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("one session per message: %d messages in %.2fs, %.0f messages/sec%n", single, seconds, single / seconds);
+    }
+
+    @Test
+    void failedSendsBackOffAndEventuallyGiveUp() {
+        enqueue(3);
+        // nothing listens here, every connect fails
+        EmailOutboxDispatcher dispatcher = dispatcher(sender(1));
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatch();
+
+        for (Notification notification : outbox) {
+            assertEquals(NotificationStatus.PENDING, notification.getStatus());
+            assertEquals(1, notification.getAttempts());
+            assertNotNull(notification.getLastError());
+            assertFalse(notification.getNextAttemptAt().isBefore(before.plusSeconds(30)));
+        }
+
+        // not due yet, so a second run must leave them alone
+        dispatcher.dispatch();
+        assertEquals(1, outbox.get(0).getAttempts());
+
+        for (int attempt = 2; attempt <= 3; attempt++) {
+            outbox.forEach(n -> n.setNextAttemptAt(LocalDateTime.now().minusSeconds(1)));
+            dispatcher.dispatch();
+        }
+        assertTrue(outbox.stream().allMatch(n -> n.getStatus() == NotificationStatus.FAILED && n.getAttempts() == 3));
+    }
+
+    private static boolean isMultipart(MimeMessage message) {
+        try {
+            return message.getContentType().startsWith("multipart/");
+        } catch (MessagingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private EmailOutboxDispatcher dispatcher(JavaMailSender sender) {
+        return new EmailOutboxDispatcher(notificationRepository, sender, mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(), 100, 1000, 3, Duration.ofSeconds(30), Duration.ofHours(1), Duration.ofMinutes(5));
+    }
+
+    private static JavaMailSenderImpl sender(int port) {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("127.0.0.1");
+        sender.setPort(port);
+        sender.setDefaultEncoding("UTF-8");
+        sender.getJavaMailProperties().put("mail.smtp.from", "hotel@example.com");
+        sender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "2000");
+        // skip the local host name lookup for EHLO
+        sender.getJavaMailProperties().put("mail.smtp.localhost", "localhost");
+        return sender;
+    }
+
+    private void enqueue(int count) {
+        for (int i = 0; i < count; i++) {
+            outbox.add(Notification.builder()
+                    .id(ids.incrementAndGet())
+                    .recipient("guest" + i + "@example.com")
+                    .subject("Booking Confirmation")
+                    .body("Your booking has been Created successfully " + i)
+                    .htmlBody(i % 2 == 0 ? "<p>Your booking has been created successfully " + i + "</p>" : null)
+                    .bookingReference("REF" + i)
+                    .type(NotificationType.EMAIL)
+                    .status(NotificationStatus.PENDING)
+                    .nextAttemptAt(LocalDateTime.now())
+                    .build());
+        }
+    }
+}
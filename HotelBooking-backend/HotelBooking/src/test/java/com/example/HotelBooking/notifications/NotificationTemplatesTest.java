@@ -0,0 +1,87 @@
+package com.example.HotelBooking.notifications;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NotificationTemplatesTest {
+
+    private static final Map<String, String> VALUES = Map.of("bookingReference", "REF1", "paymentUrl", "http://pay");
+
+    @TempDir
+    Path directory;
+
+    // counts template file reads, which only happen when a template is compiled
+    private final AtomicInteger reads = new AtomicInteger();
+    private final DefaultResourceLoader resourceLoader = new DefaultResourceLoader() {
+        @Override
+        public Resource getResource(String location) {
+            reads.incrementAndGet();
+            return super.getResource(location);
+        }
+    };
+
+    @BeforeEach
+    void writeTemplates() throws IOException {
+        write("booking-confirmation.subject", "Booking Confirmation");
+        write("booking-confirmation.txt", "Booking {{bookingReference}}\n");
+        write("booking-confirmation.html", "<p>{{bookingReference}}</p>");
+        //the French translation only overrides the subject
+        write("booking-confirmation_fr.subject", "Confirmation de réservation");
+    }
+
+    @Test
+    void fallsBackFileByFile() {
+        NotificationTemplates templates = templates(false);
+
+        RenderedEmail french = templates.render(EmailTemplate.BOOKING_CONFIRMATION, Locale.CANADA_FRENCH, VALUES);
+        assertEquals("Confirmation de réservation", french.subject());
+        assertEquals("Booking REF1", french.text());
+
+        RenderedEmail german = templates.render(EmailTemplate.BOOKING_CONFIRMATION, Locale.GERMANY, VALUES);
+        assertEquals("Booking Confirmation", german.subject());
+        assertEquals("<p>REF1</p>", german.html());
+    }
+
+    @Test
+    void compilesOncePerTranslationWhateverTheRequestedLocale() {
+        NotificationTemplates templates = templates(false);
+        reads.set(0);
+
+        for (int i = 0; i < 500; i++) {
+            templates.render(EmailTemplate.BOOKING_CONFIRMATION, new Locale("x" + i, "Y" + i), VALUES);
+            templates.render(EmailTemplate.BOOKING_CONFIRMATION, new Locale("fr", "Z" + i), VALUES);
+        }
+
+        //three lookups for the base template; for French one for the subject and two for each part that falls back
+        assertEquals(3 + 5, reads.get());
+    }
+
+    @Test
+    void reloadPicksUpNewTranslations() throws IOException {
+        NotificationTemplates templates = templates(true);
+        assertEquals("Booking Confirmation", templates.render(EmailTemplate.BOOKING_CONFIRMATION, Locale.GERMAN, VALUES).subject());
+
+        write("booking-confirmation_de.subject", "Buchungsbestätigung");
+        assertEquals("Buchungsbestätigung", templates.render(EmailTemplate.BOOKING_CONFIRMATION, Locale.GERMAN, VALUES).subject());
+    }
+
+    private NotificationTemplates templates(boolean reload) {
+        return new NotificationTemplates(resourceLoader, directory.toUri().toString(), reload);
+    }
+
+    private void write(String fileName, String content) throws IOException {
+        Files.writeString(directory.resolve(fileName), content);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.HotelBooking.repositories;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Upgrades a database the way production meets it: the schema ddl-auto=update created before the migrations
+ * existed, with data and without a Flyway history, migrated with the baseline settings of application.properties.
+ * Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class BaselineUpgradeTest {
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void createPreMigrationDatabase() {
+        dataSource = new DriverManagerDataSource(mysql.getJdbcUrl(), mysql.getUsername(), mysql.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        Flyway.configure().dataSource(dataSource).cleanDisabled(false).load().clean();
+        Flyway.configure().dataSource(dataSource).target("1").load().migrate();
+        jdbcTemplate.execute("DROP TABLE flyway_schema_history");
+
+        jdbcTemplate.update("INSERT INTO users (id, email, password, phone_number, role, is_active) "
+                + "VALUES (1, 'guest@example.com', 'x', '0', 'CUSTOMER', 1)");
+        jdbcTemplate.update("INSERT INTO rooms (id, room_number, type, price_per_night, capacity) VALUES (1, 101, 'DOUBLE', 100, 2)");
+        jdbcTemplate.update("INSERT INTO notifications (id, recipient, subject, body, type, created_at) "
+                + "VALUES (1, 'guest@example.com', 'Booking Confirmation', 'sent long ago', 'EMAIL', NOW())");
+        jdbcTemplate.update("INSERT INTO booking_reference (id, reference_no) VALUES (1, 'OLDREF0001')");
+    }
+
+    @Test
+    void upgradesAPreMigrationDatabase() {
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+        insertBooking(1, "OLDREF0001", "BOOKED", checkIn, checkIn.plusDays(2));
+        insertBooking(2, "OLDREF0002", "CANCELLED", checkIn.plusDays(5), checkIn.plusDays(7));
+        insertBooking(3, "OLDREF0003", "CHECKED_OUT", checkIn.minusDays(10), checkIn.minusDays(8));
+
+        migrate();
+
+        //only the active stay claims its dates, check-out day included
+        assertEquals(3, count("SELECT COUNT(*) FROM room_nights WHERE booking_id = 1"));
+        assertEquals(3, count("SELECT COUNT(*) FROM room_nights"));
+        //the old notification was already sent, the outbox must not send it again
+        assertEquals(1, count("SELECT COUNT(*) FROM notifications WHERE status = 'SENT' AND sent_at IS NOT NULL"));
+        //sequences start past the AUTO_INCREMENT ids
+        assertEquals(4, count("SELECT next_val FROM bookings_seq"));
+        assertEquals(2, count("SELECT next_val FROM users_seq"));
+        assertEquals(1, count("SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE() "
+                + "AND table_name = 'bookings' AND index_name = 'uk_bookings_bookingreference' AND non_unique = 0"));
+        assertEquals(0, count("SELECT next_value FROM booking_reference_sequence WHERE name = 'booking'"));
+        assertEquals(0, count("SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = DATABASE() "
+                + "AND table_name = 'booking_reference'"));
+    }
+
+    @Test
+    void stopsOnDuplicateBookingReferences() {
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+        insertBooking(1, "OLDREF0001", "BOOKED", checkIn, checkIn.plusDays(2));
+        insertBooking(2, "OLDREF0001", "CHECKED_OUT", checkIn.minusDays(10), checkIn.minusDays(8));
+
+        FlywayException e = assertThrows(FlywayException.class, this::migrate);
+        String reason = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        assertTrue(reason.contains("OLDREF0001"), reason);
+    }
+
+    private void migrate() {
+        Flyway.configure().dataSource(dataSource).baselineOnMigrate(true).baselineVersion("1").load().migrate();
+    }
+
+    private void insertBooking(long id, String reference, String status, LocalDate checkIn, LocalDate checkOut) {
+        jdbcTemplate.update("INSERT INTO bookings (id, user_id, room_id, check_in_date, check_out_date, bookingreference, "
+                + "booking_status, payment_status) VALUES (?, 1, 1, ?, ?, ?, ?, 'COMPLETED')",
+                id, Date.valueOf(checkIn), Date.valueOf(checkOut), reference, status);
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
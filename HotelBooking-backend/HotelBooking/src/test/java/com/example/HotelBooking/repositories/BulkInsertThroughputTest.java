@@ -0,0 +1,142 @@
+package com.example.HotelBooking.repositories;
+
+import com.example.HotelBooking.entities.Notification;
+import com.example.HotelBooking.enums.NotificationStatus;
+import com.example.HotelBooking.enums.NotificationType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bulk insert throughput of the pooled-lo sequence ids against the old IDENTITY ids, on an in-memory H2
+ * in MySQL mode with the batching settings from application.properties. H2 has no network hop, so the
+ * rows/sec gap here is the floor of what a real MySQL round trip per row costs.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        //the migrations are MySQL-only; the comparison table only exists in this test
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.url=jdbc:h2:mem:bulk;MODE=MySQL"
+})
+class BulkInsertThroughputTest {
+
+    private static final int ROWS = 20_000;
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    //the notifications table as it was mapped before, kept here to measure against
+    @Entity
+    @Table(name = "identity_notifications")
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    static class IdentityNotification {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+
+        private String subject;
+
+        private String recipient;
+
+        private String body;
+
+        private String bookingReference;
+
+        @Enumerated(EnumType.STRING)
+        private NotificationType type;
+
+        @Enumerated(EnumType.STRING)
+        private NotificationStatus status;
+
+        private LocalDateTime createdAt = LocalDateTime.now();
+    }
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void sequenceIdsBatchInserts() {
+        //warm both paths up before measuring
+        insert(ROWS / 10, this::identityRow);
+        insert(ROWS / 10, this::sequenceRow);
+
+        statistics.clear();
+        double identityRate = insert(ROWS, this::identityRow);
+        long identityStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        double sequenceRate = insert(ROWS, this::sequenceRow);
+        long sequenceStatements = statistics.getPrepareStatementCount();
+
+        System.out.printf("IDENTITY: %d rows, %d statements, %.0f rows/sec%n", ROWS, identityStatements, identityRate);
+        System.out.printf("pooled-lo sequence: %d rows, %d statements, %.0f rows/sec%n", ROWS, sequenceStatements, sequenceRate);
+
+        assertEquals(ROWS, identityStatements);
+        //one statement per batch plus one sequence call per allocation block
+        assertTrue(sequenceStatements <= 2L * ROWS / BATCH_SIZE + 2, "inserts were not batched: " + sequenceStatements);
+        assertTrue(sequenceRate > identityRate, "batched inserts were not faster");
+    }
+
+    private double insert(int rows, IntFunction<Object> row) {
+        long start = System.nanoTime();
+        for (int i = 0; i < rows; i++) {
+            entityManager.persist(row.apply(i));
+            if ((i + 1) % BATCH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return rows / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private Object identityRow(int i) {
+        IdentityNotification notification = new IdentityNotification();
+        notification.setSubject("Booking Confirmation");
+        notification.setRecipient("guest" + i + "@example.com");
+        notification.setBody("Your booking has been confirmed.");
+        notification.setBookingReference("REF" + i);
+        notification.setType(NotificationType.EMAIL);
+        notification.setStatus(NotificationStatus.PENDING);
+        return notification;
+    }
+
+    private Object sequenceRow(int i) {
+        return Notification.builder()
+                .subject("Booking Confirmation")
+                .recipient("guest" + i + "@example.com")
+                .body("Your booking has been confirmed.")
+                .bookingReference("REF" + i)
+                .type(NotificationType.EMAIL)
+                .status(NotificationStatus.PENDING)
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+    }
+}
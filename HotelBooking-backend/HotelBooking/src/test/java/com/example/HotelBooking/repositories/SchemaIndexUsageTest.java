@@ -0,0 +1,148 @@
+package com.example.HotelBooking.repositories;
+
+import com.example.HotelBooking.entities.Booking;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the Flyway migrations on a real MySQL, checks Hibernate's mappings against them, and asks EXPLAIN
+ * which index the hot queries pick once the tables hold enough rows for the optimizer to care.
+ * Skipped when Docker is not available.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+//ANALYZE TABLE commits, so the seed data is written outside the test transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SchemaIndexUsageTest {
+
+    private static final int USERS = 1_000;
+    private static final int ROOMS = 200;
+    private static final int BOOKINGS = 20_000;
+    private static final LocalDate FIRST_NIGHT = LocalDate.of(2025, 1, 1);
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    //production entities only; test-only entities such as BulkInsertThroughputTest's have no table in the migrations
+    @TestConfiguration
+    @EntityScan(basePackageClasses = Booking.class)
+    static class ProductionEntities {
+    }
+
+    @BeforeAll
+    void seed() {
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 1; i <= USERS; i++) {
+            users.add(new Object[]{i, "guest" + i + "@example.com"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, email, password, phone_number, role, is_active) "
+                + "VALUES (?, ?, 'x', '0', 'CUSTOMER', 1)", users);
+
+        List<Object[]> rooms = new ArrayList<>();
+        for (int i = 1; i <= ROOMS; i++) {
+            rooms.add(new Object[]{i, 100 + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO rooms (id, room_number, type, price_per_night, capacity) "
+                + "VALUES (?, ?, 'DOUBLE', 100, 2)", rooms);
+
+        //most stays are over, so the active ones are a small slice of the table like in production
+        List<Object[]> bookings = new ArrayList<>();
+        List<Object[]> payments = new ArrayList<>();
+        List<Object[]> nights = new ArrayList<>();
+        for (int i = 1; i <= BOOKINGS; i++) {
+            int room = i % ROOMS + 1;
+            LocalDate checkIn = FIRST_NIGHT.plusDays((long) (i / ROOMS) * 3);
+            String status = i > BOOKINGS - BOOKINGS / 20 ? "BOOKED" : "CHECKED_OUT";
+            bookings.add(new Object[]{i, i % USERS + 1, room, Date.valueOf(checkIn), Date.valueOf(checkIn.plusDays(2)),
+                    "REF" + i, status});
+            payments.add(new Object[]{i, i % USERS + 1, "REF" + i});
+            nights.add(new Object[]{Date.valueOf(checkIn), room, i});
+            nights.add(new Object[]{Date.valueOf(checkIn.plusDays(1)), room, i});
+            nights.add(new Object[]{Date.valueOf(checkIn.plusDays(2)), room, i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (id, user_id, room_id, check_in_date, check_out_date, "
+                + "bookingreference, booking_status, payment_status) VALUES (?, ?, ?, ?, ?, ?, ?, 'COMPLETED')", bookings);
+        jdbcTemplate.batchUpdate("INSERT INTO payments (id, user_id, booking_reference, amount, payment_status) "
+                + "VALUES (?, ?, ?, 100, 'COMPLETED')", payments);
+        jdbcTemplate.batchUpdate("INSERT INTO room_nights (night_date, room_id, booking_id) VALUES (?, ?, ?)", nights);
+
+        jdbcTemplate.execute("ANALYZE TABLE users, rooms, bookings, payments, room_nights");
+    }
+
+    @Test
+    void bookingCommitCheckSeeksToOneRoom() {
+        assertIndexUsed("room_nights", "PRIMARY",
+                "SELECT COUNT(*) FROM room_nights WHERE room_id = ? AND night_date BETWEEN ? AND ?",
+                17, Date.valueOf(FIRST_NIGHT.plusDays(30)), Date.valueOf(FIRST_NIGHT.plusDays(33)));
+    }
+
+    @Test
+    void roomOverlapUsesTheRoomDatesIndex() {
+        assertIndexUsed("bookings", "idx_bookings_room_dates",
+                "SELECT id FROM bookings WHERE room_id = ? AND check_in_date < ? AND check_out_date > ? "
+                        + "AND booking_status IN ('BOOKED', 'CHECKED_IN')",
+                17, Date.valueOf(FIRST_NIGHT.plusDays(33)), Date.valueOf(FIRST_NIGHT.plusDays(30)));
+    }
+
+    @Test
+    void bookingHistoryUsesTheUserIndex() {
+        assertIndexUsed("b", "idx_bookings_user",
+                "SELECT b.id, r.room_number FROM bookings b LEFT JOIN rooms r ON r.id = b.room_id "
+                        + "WHERE b.user_id = ? ORDER BY b.id", 42);
+    }
+
+    @Test
+    void activeStaysUseTheStatusIndex() {
+        assertIndexUsed("bookings", "idx_bookings_status_checkout",
+                "SELECT id FROM bookings WHERE booking_status IN ('BOOKED', 'CHECKED_IN') AND check_out_date >= ?",
+                Date.valueOf(FIRST_NIGHT));
+    }
+
+    @Test
+    void bookingLookupUsesTheUniqueReference() {
+        assertIndexUsed("bookings", "uk_bookings_bookingreference",
+                "SELECT id FROM bookings WHERE bookingreference = ?", "REF123");
+    }
+
+    @Test
+    void paymentLookupUsesTheReferenceIndex() {
+        assertIndexUsed("payments", "idx_payments_booking_reference",
+                "SELECT id FROM payments WHERE booking_reference = ?", "REF123");
+    }
+
+    private void assertIndexUsed(String table, String index, String sql, Object... args) {
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, args);
+        Map<String, Object> row = plan.stream()
+                .filter(r -> table.equals(r.get("table")))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("no plan row for " + table + ": " + plan));
+        assertEquals(index, row.get("key"), () -> "plan: " + plan);
+    }
+}
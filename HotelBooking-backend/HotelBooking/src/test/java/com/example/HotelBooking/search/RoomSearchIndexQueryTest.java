@@ -0,0 +1,144 @@
+package com.example.HotelBooking.search;
+
+import com.example.HotelBooking.entities.Room;
+import com.example.HotelBooking.enums.RoomType;
+import com.example.HotelBooking.mappers.RoomMapperImpl;
+import com.example.HotelBooking.repositories.RoomRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the trigram index against the query it replaces: RoomRepository.searchRooms runs on the same
+ * seeded rooms and both must return the same ids. H2 in MySQL mode stands in for MySQL; every text
+ * comparison in the query goes through LOWER, so collation differences do not matter.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        //the migrations are MySQL-only
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.url=jdbc:h2:mem:roomsearch;MODE=MySQL"
+})
+class RoomSearchIndexQueryTest {
+
+    private static final String[] WORDS = {"Sea", "view", "balcony", "King", "bed", "quiet", "Garden", "suite", "Family", "twin"};
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final Random random = new Random(42);
+    // room numbers are unique, so they are dealt from a shuffled pool
+    private final Deque<Integer> roomNumbers = new ArrayDeque<>();
+    private RoomSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        List<Integer> numbers = new ArrayList<>();
+        for (int number = 1; number <= 999; number++) {
+            numbers.add(number);
+        }
+        Collections.shuffle(numbers, random);
+        roomNumbers.addAll(numbers);
+
+        for (int i = 0; i < 300; i++) {
+            roomRepository.save(randomize(new Room()));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        index = new RoomSearchIndex(roomRepository, new RoomMapperImpl());
+        index.rebuild();
+    }
+
+    @Test
+    void matchesTheSearchQuery() {
+        for (String query : queries()) {
+            assertEquals(queried(query), found(query), "query '" + query + "'");
+        }
+    }
+
+    @Test
+    void matchesTheSearchQueryAfterChanges() {
+        List<Room> rooms = roomRepository.findAll();
+        for (int i = 0; i < 100; i++) {
+            Room room = rooms.get(random.nextInt(rooms.size()));
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    roomRepository.delete(room);
+                    rooms.remove(room);
+                    index.remove(room.getId());
+                }
+                case 1 -> {
+                    Room added = roomRepository.save(randomize(new Room()));
+                    rooms.add(added);
+                    index.put(added);
+                }
+                default -> {
+                    if (room.getRoomNumber() != null) {
+                        roomNumbers.add(room.getRoomNumber());
+                    }
+                    index.put(roomRepository.save(randomize(room)));
+                }
+            }
+        }
+        entityManager.flush();
+
+        for (String query : queries()) {
+            assertEquals(queried(query), found(query), "query '" + query + "'");
+        }
+    }
+
+    private List<String> queries() {
+        List<String> queries = new ArrayList<>(List.of("", "1", "12", "0", ".5", "00", "sea", "SEA VIEW", "suite",
+                "Suite", "SINGLE", "double", "trip", "ing", "balcony king", "missing", "99.00", "2"));
+        List<Room> rooms = roomRepository.findAll();
+        for (int i = 0; i < 200; i++) {
+            Room room = rooms.get(random.nextInt(rooms.size()));
+            String text = switch (random.nextInt(4)) {
+                case 0 -> String.valueOf(room.getRoomNumber());
+                case 1 -> room.getPricePerNight().toPlainString();
+                case 2 -> String.valueOf(room.getCapacity());
+                default -> room.getDescription() != null ? room.getDescription() : "x";
+            };
+            int from = random.nextInt(text.length());
+            queries.add(text.substring(from, from + 1 + random.nextInt(text.length() - from)));
+        }
+        return queries;
+    }
+
+    private Set<Long> queried(String query) {
+        return roomRepository.searchRooms(query).stream().map(Room::getId).collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private Set<Long> found(String query) {
+        return index.search(query).stream().map(room -> room.getId()).collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private Room randomize(Room room) {
+        room.setRoomNumber(random.nextInt(5) == 0 ? null : roomNumbers.pop());
+        room.setType(RoomType.values()[random.nextInt(RoomType.values().length)]);
+        room.setPricePerNight(BigDecimal.valueOf(1000 + random.nextInt(50000), 2));
+        room.setCapacity(1 + random.nextInt(6));
+        room.setDescription(null);
+        if (random.nextInt(6) != 0) {
+            StringJoiner description = new StringJoiner(" ");
+            for (int w = 1 + random.nextInt(5); w > 0; w--) {
+                description.add(WORDS[random.nextInt(WORDS.length)]);
+            }
+            room.setDescription(description.toString());
+        }
+        return room;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.HotelBooking.search;
+
+import com.example.HotelBooking.dtos.RoomDTO;
+import com.example.HotelBooking.entities.Room;
+import com.example.HotelBooking.enums.RoomType;
+import com.example.HotelBooking.mappers.RoomMapperImpl;
+import com.example.HotelBooking.repositories.RoomRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RoomSearchIndexTest {
+
+    private static final String[] WORDS = {"Sea", "view", "balcony", "King", "bed", "quiet", "Garden", "suite", "Family", "twin"};
+
+    private final Random random = new Random(42);
+    private final Map<Long, Room> rooms = new TreeMap<>();
+    private RoomSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= 300; id++) {
+            rooms.put(id, randomRoom(id));
+        }
+        RoomRepository roomRepository = mock(RoomRepository.class);
+        when(roomRepository.findAll()).thenReturn(new ArrayList<>(rooms.values()));
+        index = new RoomSearchIndex(roomRepository, new RoomMapperImpl());
+        index.rebuild();
+    }
+
+    @Test
+    void matchesSqlSemantics() {
+        for (String query : queries()) {
+            assertEquals(expected(query), found(query), "query '" + query + "'");
+        }
+    }
+
+    @Test
+    void followsIncrementalChanges() {
+        for (int i = 0; i < 200; i++) {
+            long id = 1 + random.nextInt(320);
+            if (random.nextInt(4) == 0) {
+                rooms.remove(id);
+                index.remove(id);
+            } else {
+                Room room = randomRoom(id);
+                rooms.put(id, room);
+                index.put(room);
+            }
+        }
+        for (String query : queries()) {
+            assertEquals(expected(query), found(query), "query '" + query + "'");
+        }
+    }
+
+    @Test
+    void ranksExactRoomNumberFirst() {
+        Room room = randomRoom(1000L);
+        room.setRoomNumber(12);
+        index.put(room);
+
+        assertEquals(1000L, index.search("12").get(0).getId());
+    }
+
+    private List<String> queries() {
+        List<String> queries = new ArrayList<>(List.of("", "1", "12", "0", ".5", "00", "sea", "SEA VIEW", "suite",
+                "Suite", "SINGLE", "double", "trip", "ing", "balcony king", "missing", "99.00", "2"));
+        for (int i = 0; i < 300; i++) {
+            Room room = rooms.get(1L + random.nextInt(300));
+            if (room == null) continue;
+            String text = switch (random.nextInt(4)) {
+                case 0 -> String.valueOf(room.getRoomNumber());
+                case 1 -> room.getPricePerNight().toPlainString();
+                case 2 -> String.valueOf(room.getCapacity());
+                default -> room.getDescription() != null ? room.getDescription() : "x";
+            };
+            int from = random.nextInt(text.length());
+            queries.add(text.substring(from, from + 1 + random.nextInt(text.length() - from)));
+        }
+        return queries;
+    }
+
+    private Set<Long> found(String query) {
+        return index.search(query).stream().map(RoomDTO::getId).collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    //the WHERE clause of RoomRepository.searchRooms, evaluated the way MySQL does with a case-insensitive collation;
+    //RoomSearchIndexQueryTest runs the real query, this copy keeps the incremental cases free of a database
+    private Set<Long> expected(String query) {
+        Set<Long> ids = new TreeSet<>();
+        for (Room room : rooms.values()) {
+            if (like(room.getRoomNumber(), query)
+                    || (room.getType() != null && room.getType().name().equalsIgnoreCase(query))
+                    || like(room.getPricePerNight(), query)
+                    || like(room.getCapacity(), query)
+                    || like(room.getDescription(), query)) {
+                ids.add(room.getId());
+            }
+        }
+        return ids;
+    }
+
+    private static boolean like(Object column, String query) {
+        return column != null && column.toString().toLowerCase(Locale.ROOT).contains(query.toLowerCase(Locale.ROOT));
+    }
+
+    //prices are read back from a DECIMAL(38,2) column, so they always carry two decimals
+    private Room randomRoom(long id) {
+        Room room = new Room();
+        room.setId(id);
+        room.setRoomNumber(random.nextInt(5) == 0 ? null : 1 + random.nextInt(999));
+        room.setType(RoomType.values()[random.nextInt(RoomType.values().length)]);
+        room.setPricePerNight(BigDecimal.valueOf(1000 + random.nextInt(50000), 2));
+        room.setCapacity(1 + random.nextInt(6));
+        if (random.nextInt(6) != 0) {
+            StringJoiner description = new StringJoiner(" ");
+            for (int w = 1 + random.nextInt(5); w > 0; w--) {
+                description.add(WORDS[random.nextInt(WORDS.length)]);
+            }
+            room.setDescription(description.toString());
+        }
+        return room;
+    }
+}
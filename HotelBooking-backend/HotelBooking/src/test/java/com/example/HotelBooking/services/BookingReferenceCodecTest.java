@@ -0,0 +1,67 @@
+package com.example.HotelBooking.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingReferenceCodecTest {
+
+    private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+
+    private final BookingReferenceCodec codec = new BookingReferenceCodec("test-secret");
+
+    @Test
+    void encodesDistinctSequencesToDistinctCodes() {
+        Set<String> codes = new HashSet<>();
+        for (long sequence = 0; sequence < 200_000; sequence++) {
+            String code = codec.encode(sequence);
+            assertEquals(BookingReferenceCodec.LENGTH, code.length());
+            assertTrue(code.chars().allMatch(c -> ALPHABET.indexOf(c) >= 0), code);
+            assertTrue(codes.add(code), "duplicate " + code);
+        }
+    }
+
+    @Test
+    void dependsOnTheSecret() {
+        assertNotEquals(codec.encode(1), new BookingReferenceCodec("other-secret").encode(1));
+    }
+
+    @Test
+    void refusesAMissingSecret() {
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> new BookingReferenceCodec(""));
+        assertTrue(e.getMessage().contains("BOOKING_REFERENCE_SECRET"), e.getMessage());
+    }
+
+    @Test
+    void checkCharacterCatchesSingleSubstitutions() {
+        Set<String> codes = new HashSet<>();
+        for (long sequence = 0; sequence < 2_000; sequence++) {
+            codes.add(codec.encode(sequence));
+        }
+        for (long sequence = 0; sequence < 200; sequence++) {
+            String code = codec.encode(sequence);
+            for (int position = 0; position < BookingReferenceCodec.LENGTH - 1; position++) {
+                for (char replacement : ALPHABET.toCharArray()) {
+                    if (replacement == code.charAt(position)) continue;
+                    String typo = code.substring(0, position) + replacement + code.substring(position + 1);
+                    assertFalse(codes.contains(typo), typo);
+                    assertNotEquals(checkCharacter(typo), typo.charAt(BookingReferenceCodec.LENGTH - 1), typo);
+                }
+            }
+        }
+    }
+
+    private static char checkCharacter(String code) {
+        int factor = 2;
+        int sum = 0;
+        for (int i = BookingReferenceCodec.LENGTH - 2; i >= 0; i--) {
+            int addend = factor * ALPHABET.indexOf(code.charAt(i));
+            sum += addend / 32 + addend % 32;
+            factor = factor == 2 ? 1 : 2;
+        }
+        return ALPHABET.charAt((32 - sum % 32) % 32);
+    }
+}
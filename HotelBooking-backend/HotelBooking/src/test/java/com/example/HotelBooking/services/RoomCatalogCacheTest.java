@@ -0,0 +1,77 @@
+package com.example.HotelBooking.services;
+
+import com.example.HotelBooking.dtos.Response;
+import com.example.HotelBooking.dtos.RoomDTO;
+import com.example.HotelBooking.enums.RoomType;
+import com.example.HotelBooking.json.RoomJsonFragments;
+import com.example.HotelBooking.services.RoomCatalogCache.CachedJson;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoomCatalogCacheTest {
+
+    private static final String TIMESTAMP = "\"timestamp\":\"[^\"]*\"";
+
+    private ObjectMapper objectMapper;
+    private RoomCatalogCache cache;
+
+    @BeforeEach
+    void setUp() {
+        RoomJsonFragments fragments = new RoomJsonFragments(new SimpleMeterRegistry(), 1000);
+        //ISO dates like Spring Boot's mapper
+        objectMapper = Jackson2ObjectMapperBuilder.json().modulesToInstall(fragments.module())
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        cache = new RoomCatalogCache(objectMapper);
+    }
+
+    @Test
+    void servedBodyMatchesAFreshResponseExceptForTheTimestamp() throws Exception {
+        Response response = catalog();
+        CachedJson json = cache.getAllRooms(() -> response);
+
+        String fresh = objectMapper.writeValueAsString(response);
+        String served = new String(cache.body(json), StandardCharsets.UTF_8);
+        assertEquals(fresh.replaceAll(TIMESTAMP, ""), served.replaceAll(TIMESTAMP, ""));
+    }
+
+    @Test
+    void everyResponseCarriesTheTimeItWasServed() throws Exception {
+        CachedJson json = cache.getAllRooms(RoomCatalogCacheTest::catalog);
+        LocalDateTime before = LocalDateTime.now();
+
+        Response served = objectMapper.readValue(cache.body(json), Response.class);
+        assertFalse(served.getTimestamp().isBefore(before));
+        assertEquals(2, served.getRooms().size());
+    }
+
+    @Test
+    void eTagIgnoresTheTimestampAndMatchesWeakly() {
+        CachedJson first = cache.getAllRooms(RoomCatalogCacheTest::catalog);
+        cache.invalidate();
+        CachedJson second = cache.getAllRooms(RoomCatalogCacheTest::catalog);
+
+        assertEquals(first.eTag(), second.eTag());
+        assertTrue(second.matches(first.eTag()));
+        assertTrue(second.matches(first.eTag().substring(2)));
+    }
+
+    private static Response catalog() {
+        List<RoomDTO> rooms = List.of(
+                RoomDTO.builder().id(1L).roomNumber(101).type(RoomType.DOUBLE).pricepernight(BigDecimal.valueOf(120))
+                        .capacity(2).description("sea view").build(),
+                RoomDTO.builder().id(2L).roomNumber(102).type(RoomType.SINGLE).pricepernight(BigDecimal.valueOf(80))
+                        .capacity(1).build());
+        return Response.builder().status(200).message("success").rooms(rooms).build();
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.HotelBooking.services.impl;
+
+import com.example.HotelBooking.availability.AvailabilitySearchCache;
+import com.example.HotelBooking.availability.RoomAvailabilityIndex;
+import com.example.HotelBooking.availability.RoomLocks;
+import com.example.HotelBooking.dtos.BookingDTO;
+import com.example.HotelBooking.entities.Booking;
+import com.example.HotelBooking.entities.Room;
+import com.example.HotelBooking.entities.User;
+import com.example.HotelBooking.enums.RoomType;
+import com.example.HotelBooking.exceptions.InvalidBookingStateAndDateException;
+import com.example.HotelBooking.notifications.NotificationTemplates;
+import com.example.HotelBooking.notifications.RenderedEmail;
+import com.example.HotelBooking.repositories.BookingRepository;
+import com.example.HotelBooking.repositories.RoomNightRepository;
+import com.example.HotelBooking.repositories.RoomRepository;
+import com.example.HotelBooking.services.BookingCodeGenerator;
+import com.example.HotelBooking.services.BookingReferenceCache;
+import com.example.HotelBooking.services.NotificationService;
+import com.example.HotelBooking.services.UserService;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class BookingServiceImplConcurrencyTest {
+
+    private static final int ROOMS = 8;
+    private static final int REQUESTS = 4000;
+
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private RoomRepository roomRepository;
+    @Mock
+    private RoomNightRepository roomNightRepository;
+    @Mock
+    private NotificationService notificationService;
+    @Mock
+    private UserService userService;
+    @Mock
+    private BookingCodeGenerator bookingCodeGenerator;
+    @Mock
+    private RoomAvailabilityIndex roomAvailabilityIndex;
+    @Mock
+    private AvailabilitySearchCache availabilitySearchCache;
+    @Mock
+    private BookingReferenceCache bookingReferenceCache;
+    @Mock
+    private NotificationTemplates notificationTemplates;
+    @Spy
+    private RoomLocks roomLocks = new RoomLocks(64);
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @InjectMocks
+    private BookingServiceImpl bookingService;
+
+    // stands in for the bookings table: the availability check and the insert are two separate steps
+    private final List<Booking> savedBookings = new CopyOnWriteArrayList<>();
+    // stands in for room_nights and its (room_id, night_date) key
+    private final Map<String, Long> claimedNights = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        User user = User.builder().id(1L).email("guest@example.com").build();
+        when(userService.getCurrentLoggedInUser()).thenReturn(user);
+
+        Map<Long, Room> rooms = new HashMap<>();
+        for (long id = 1; id <= ROOMS; id++) {
+            rooms.put(id, new Room(id, (int) (100 + id), RoomType.DOUBLE, BigDecimal.valueOf(120), 2, "room", null));
+        }
+        when(roomRepository.findById(anyLong())).thenAnswer(inv -> Optional.ofNullable(rooms.get(inv.<Long>getArgument(0))));
+
+        when(notificationTemplates.render(any(), any(), any())).thenReturn(new RenderedEmail("subject", "text", "<p>html</p>"));
+
+        AtomicLong references = new AtomicLong();
+        when(bookingCodeGenerator.generateBookingReference()).thenAnswer(inv -> "REF" + references.incrementAndGet());
+
+        when(bookingRepository.isRoomAvailable(anyLong(), any(), any())).thenAnswer(inv -> {
+            Long roomId = inv.getArgument(0);
+            LocalDate checkIn = inv.getArgument(1);
+            LocalDate checkOut = inv.getArgument(2);
+            Thread.yield();
+            return savedBookings.stream().noneMatch(b -> b.getRoom().getId().equals(roomId)
+                    && !checkIn.isAfter(b.getCheckOutDate()) && !checkOut.isBefore(b.getCheckInDate()));
+        });
+        AtomicLong ids = new AtomicLong();
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenAnswer(inv -> {
+            Booking booking = inv.getArgument(0);
+            Thread.yield();
+            booking.setId(ids.incrementAndGet());
+            savedBookings.add(booking);
+            return booking;
+        });
+        when(roomNightRepository.reserveNights(anyLong(), anyLong(), any(), any())).thenAnswer(inv -> {
+            Long roomId = inv.getArgument(0);
+            Long bookingId = inv.getArgument(1);
+            LocalDate checkOut = inv.getArgument(3);
+            List<String> claimed = new ArrayList<>();
+            for (LocalDate night = inv.getArgument(2); !night.isAfter(checkOut); night = night.plusDays(1)) {
+                String key = roomId + "/" + night;
+                if (claimedNights.putIfAbsent(key, bookingId) != null) {
+                    // roll back like the surrounding transaction would
+                    claimed.forEach(claimedNights::remove);
+                    savedBookings.removeIf(b -> b.getId().equals(bookingId));
+                    String message = "Duplicate entry '" + key + "' for key 'room_nights.PRIMARY'";
+                    throw new DataIntegrityViolationException(message, new ConstraintViolationException(
+                            message, new SQLIntegrityConstraintViolationException(message, "23000", 1062), "room_nights.PRIMARY"));
+                }
+                claimed.add(key);
+            }
+            return claimed.size();
+        });
+    }
+
+    @Test
+    void overlappingRequestsNeverDoubleBookARoom() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        Random random = new Random(42);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < REQUESTS; i++) {
+            LocalDate checkIn = LocalDate.now().plusDays(1 + random.nextInt(30));
+            BookingDTO request = BookingDTO.builder()
+                    .roomId(1L + random.nextInt(ROOMS))
+                    .checkInDate(checkIn)
+                    .checkOutDate(checkIn.plusDays(1 + random.nextInt(5)))
+                    .build();
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    bookingService.createBooking(request);
+                } catch (InvalidBookingStateAndDateException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        assertFalse(savedBookings.isEmpty());
+        assertEquals(REQUESTS, savedBookings.size() + rejected.get());
+        for (Booking a : savedBookings) {
+            for (Booking b : savedBookings) {
+                if (a != b && a.getRoom().getId().equals(b.getRoom().getId())) {
+                    boolean overlap = !a.getCheckInDate().isAfter(b.getCheckOutDate())
+                            && !a.getCheckOutDate().isBefore(b.getCheckInDate());
+                    assertFalse(overlap, "room " + a.getRoom().getId() + " double booked by " + a.getId() + " and " + b.getId());
+                }
+            }
+        }
+    }
+
+    @Test
+    void backToBackStayBookedOnAnotherNodeCollidesOnTheNightKey() {
+        // another node's availability check cannot see this node's commits, so only room_nights stands between them
+        when(bookingRepository.isRoomAvailable(anyLong(), any(), any())).thenReturn(true);
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+        bookingService.createBooking(BookingDTO.builder().roomId(1L).checkInDate(checkIn).checkOutDate(checkIn.plusDays(2)).build());
+
+        BookingDTO backToBack = BookingDTO.builder().roomId(1L).checkInDate(checkIn.plusDays(2)).checkOutDate(checkIn.plusDays(4)).build();
+        assertThrows(InvalidBookingStateAndDateException.class, () -> bookingService.createBooking(backToBack));
+        assertEquals(1, savedBookings.size());
+    }
+
+    @Test
+    void otherIntegrityViolationsAreNotReportedAsUnavailableRooms() {
+        String message = "Duplicate entry 'REF1' for key 'bookings.uk_bookings_bookingreference'";
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenThrow(new DataIntegrityViolationException(message,
+                new ConstraintViolationException(message, new SQLIntegrityConstraintViolationException(message, "23000", 1062),
+                        "bookings.uk_bookings_bookingreference")));
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+        BookingDTO request = BookingDTO.builder().roomId(1L).checkInDate(checkIn).checkOutDate(checkIn.plusDays(2)).build();
+
+        assertThrows(DataIntegrityViolationException.class, () -> bookingService.createBooking(request));
+    }
+}
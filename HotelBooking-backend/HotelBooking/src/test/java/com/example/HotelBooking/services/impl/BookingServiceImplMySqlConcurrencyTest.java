@@ -0,0 +1,178 @@
+package com.example.HotelBooking.services.impl;
+
+import com.example.HotelBooking.availability.AvailabilitySearchCache;
+import com.example.HotelBooking.availability.RoomAvailabilityIndex;
+import com.example.HotelBooking.availability.RoomLocks;
+import com.example.HotelBooking.dtos.BookingDTO;
+import com.example.HotelBooking.entities.Booking;
+import com.example.HotelBooking.entities.User;
+import com.example.HotelBooking.exceptions.InvalidBookingStateAndDateException;
+import com.example.HotelBooking.mappers.BookingMapper;
+import com.example.HotelBooking.notifications.NotificationTemplates;
+import com.example.HotelBooking.notifications.RenderedEmail;
+import com.example.HotelBooking.repositories.BookingRepository;
+import com.example.HotelBooking.repositories.RoomNightRepository;
+import com.example.HotelBooking.repositories.RoomRepository;
+import com.example.HotelBooking.services.BookingCodeGenerator;
+import com.example.HotelBooking.services.BookingReferenceCache;
+import com.example.HotelBooking.services.NotificationService;
+import com.example.HotelBooking.services.UserService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * BookingServiceImplConcurrencyTest against a real MySQL: several service instances, each with its own room
+ * locks like separate nodes, book overlapping stays at the same time, so only the (room_id, night_date) key
+ * of room_nights keeps two of them from getting the same night. Skipped when Docker is not available.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+//the bookings have to commit for the other threads to collide with them
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookingServiceImplMySqlConcurrencyTest {
+
+    private static final int NODES = 4;
+    private static final int ROOMS = 4;
+    private static final int REQUESTS = 600;
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private RoomRepository roomRepository;
+    @Autowired
+    private RoomNightRepository roomNightRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<BookingServiceImpl> nodes = new ArrayList<>();
+
+    //production entities only; test-only entities such as BulkInsertThroughputTest's have no table in the migrations
+    @TestConfiguration
+    @EntityScan(basePackageClasses = Booking.class)
+    static class ProductionEntities {
+    }
+
+    @BeforeAll
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO users (id, email, password, phone_number, role, is_active) "
+                + "VALUES (1, 'guest@example.com', 'x', '0', 'CUSTOMER', 1)");
+        for (int i = 1; i <= ROOMS; i++) {
+            jdbcTemplate.update("INSERT INTO rooms (id, room_number, type, price_per_night, capacity) "
+                    + "VALUES (?, ?, 'DOUBLE', 100, 2)", i, 100 + i);
+        }
+
+        User user = User.builder().id(1L).email("guest@example.com").build();
+        UserService userService = mock(UserService.class);
+        when(userService.getCurrentLoggedInUser()).thenReturn(user);
+        NotificationTemplates notificationTemplates = mock(NotificationTemplates.class);
+        when(notificationTemplates.render(any(), any(), any())).thenReturn(new RenderedEmail("subject", "text", "<p>html</p>"));
+        AtomicLong references = new AtomicLong();
+        BookingCodeGenerator bookingCodeGenerator = mock(BookingCodeGenerator.class);
+        when(bookingCodeGenerator.generateBookingReference()).thenAnswer(inv -> String.format("T%09d", references.incrementAndGet()));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        for (int i = 0; i < NODES; i++) {
+            nodes.add(new BookingServiceImpl(bookingRepository, roomRepository, roomNightRepository,
+                    mock(NotificationService.class), mock(BookingMapper.class), userService, bookingCodeGenerator,
+                    mock(RoomAvailabilityIndex.class), mock(AvailabilitySearchCache.class), new RoomLocks(64),
+                    transactionTemplate, mock(BookingReferenceCache.class), notificationTemplates));
+        }
+    }
+
+    @Test
+    void overlappingRequestsOnSeveralNodesNeverDoubleBookANight() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger lockFailures = new AtomicInteger();
+        Random random = new Random(42);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < REQUESTS; i++) {
+            BookingServiceImpl node = nodes.get(i % NODES);
+            LocalDate checkIn = LocalDate.now().plusDays(1 + random.nextInt(20));
+            BookingDTO request = BookingDTO.builder()
+                    .roomId(1L + random.nextInt(ROOMS))
+                    .checkInDate(checkIn)
+                    .checkOutDate(checkIn.plusDays(1 + random.nextInt(4)))
+                    .build();
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    node.createBooking(request);
+                } catch (InvalidBookingStateAndDateException e) {
+                    rejected.incrementAndGet();
+                } catch (PessimisticLockingFailureException e) {
+                    // InnoDB may pick one of two colliding inserts as a deadlock victim; it is rolled back all the same
+                    lockFailures.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        Integer booked = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings", Integer.class);
+        assertTrue(booked > 0);
+        assertEquals(REQUESTS, booked + rejected.get() + lockFailures.get());
+
+        Integer overlapping = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM bookings a JOIN bookings b
+                  ON a.room_id = b.room_id AND a.id < b.id
+                 AND a.check_in_date <= b.check_out_date AND b.check_in_date <= a.check_out_date
+                """, Integer.class);
+        assertEquals(0, overlapping, "active bookings of the same room overlap");
+
+        // every committed booking holds each of its nights, check-out day included, and nothing else is left over
+        Integer incomplete = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM bookings b
+                 WHERE (SELECT COUNT(*) FROM room_nights n WHERE n.booking_id = b.id AND n.room_id = b.room_id)
+                       <> DATEDIFF(b.check_out_date, b.check_in_date) + 1
+                """, Integer.class);
+        assertEquals(0, incomplete);
+        Integer orphaned = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM room_nights n WHERE NOT EXISTS (SELECT 1 FROM bookings b WHERE b.id = n.booking_id)",
+                Integer.class);
+        assertEquals(0, orphaned);
+    }
+}